@@ -0,0 +1,121 @@
+package com.example.benchmark;
+
+import com.example.domain.Status;
+import com.example.domain.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link Task} methods used by the board on every request.
+ * <p>
+ * {@code size} is a column page (20) and a fully loaded board (2000).
+ *
+ * @author hantsy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskBenchmark {
+
+    @Param({"20", "2000"})
+    int size;
+
+    private List<Task> tasks;
+
+    private Set<Task> taskSet;
+
+    private Task probe;
+
+    @Setup
+    public void setup() {
+        tasks = TaskData.tasks(size, new Random(42));
+        Collections.shuffle(tasks, new Random(7));
+        taskSet = new HashSet<>(tasks);
+        probe = TaskData.task(size / 2L, new Random(42));
+        probe.setName(tasks.get(tasks.size() / 2).getName());
+    }
+
+    @Benchmark
+    public List<Task> sortByComparator() {
+        List<Task> sorted = new ArrayList<>(tasks);
+        sorted.sort(Task.COMPARATOR);
+        return sorted;
+    }
+
+    @Benchmark
+    public Set<Task> buildHashSet() {
+        return new HashSet<>(tasks);
+    }
+
+    @Benchmark
+    public boolean containsByName() {
+        return taskSet.contains(probe);
+    }
+
+    @Benchmark
+    public void toStringAll(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(Task.TO_STRING.apply(task));
+        }
+    }
+
+    /**
+     * Synthetic tasks with the value sizes of the seeded data.
+     */
+    static final class TaskData {
+
+        private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+        private TaskData() {
+        }
+
+        static List<Task> tasks(int size, Random random) {
+            List<Task> tasks = new ArrayList<>(size);
+            for (long id = 1; id <= size; id++) {
+                tasks.add(task(id, random));
+            }
+            return tasks;
+        }
+
+        static Task task(long id, Random random) {
+            Task task = Task.of("task #" + id + " " + text(random, 10, 40), text(random, 20, 300));
+            task.setId(id);
+            task.setStatus(Status.values()[(int) (id % Status.values().length)]);
+            task.setCreatedDate(NOW.minusMinutes(id));
+            task.setLastModifiedDate(NOW.minusSeconds(id));
+            task.setVersion(id % 5);
+            return task;
+        }
+
+        static String text(Random random, int min, int max) {
+            int length = min + random.nextInt(max - min + 1);
+            StringBuilder text = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                text.append(random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.benchmark;
+
+import com.example.domain.Status;
+import com.example.domain.Task;
+import com.example.domain.TaskRepository;
+import com.example.domain.TaskSummary;
+import com.example.domain.TaskTransitionQueue;
+import com.example.web.EditTaskAction;
+import com.example.web.TaskDetails;
+import com.example.web.TaskHome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Benchmarks of the view model: mapping the board pages to {@link TaskDetails}, and the Java serialization of the
+ * view scoped beans, which is paid on every request when the state is saved in the session or on the client.
+ * <p>
+ * {@code size} is the number of tasks per column: the first page (20) and a column scrolled down to 500 tasks.
+ *
+ * @author hantsy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViewModelBenchmark {
+
+    @Param({"20", "500"})
+    int size;
+
+    private InMemoryTaskRepository taskRepository;
+
+    private final TaskTransitionQueue transitionQueue = new TaskTransitionQueue();
+
+    private List<TaskSummary> summaries;
+
+    private List<TaskDetails> details;
+
+    private TaskHome taskHome;
+
+    private EditTaskAction editTaskAction;
+
+    private byte[] serializedTaskHome;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        // the beans log every call at INFO
+        Logger.getLogger("com.example").setLevel(Level.WARNING);
+
+        Random random = new Random(42);
+        List<Task> tasks = TaskBenchmark.TaskData.tasks(size * Status.values().length, random);
+        taskRepository = new InMemoryTaskRepository(tasks);
+        summaries = taskRepository.findSummariesByStatus(Status.TODO, null, size);
+        details = summaries.stream().map(TaskDetails::of).toList();
+
+        // in the container the injected beans are tiny client proxies, leave them out of the serialized state
+        taskHome = loadBoard();
+        inject(taskHome, "taskRepository", null);
+        inject(taskHome, "transitionQueue", null);
+        serializedTaskHome = serialize(taskHome);
+
+        editTaskAction = new EditTaskAction();
+        editTaskAction.setTaskId(1L);
+        editTaskAction.setTask(tasks.getFirst());
+    }
+
+    @Benchmark
+    public List<TaskDetails> mapSummaries() {
+        List<TaskDetails> mapped = new ArrayList<>(summaries.size());
+        for (TaskSummary summary : summaries) {
+            mapped.add(TaskDetails.of(summary));
+        }
+        return mapped;
+    }
+
+    /**
+     * Loads all the columns page by page, as the board does on the initial render and with "Load more".
+     */
+    @Benchmark
+    public TaskHome loadBoard() throws ReflectiveOperationException {
+        TaskHome home = new TaskHome();
+        inject(home, "taskRepository", taskRepository);
+        inject(home, "transitionQueue", transitionQueue);
+        home.init();
+        for (Status status : Status.values()) {
+            while (home.hasMore(status)) {
+                home.loadMore(status);
+            }
+        }
+        return home;
+    }
+
+    @Benchmark
+    public byte[] serializeTaskDetails() {
+        return serialize(new ArrayList<>(details));
+    }
+
+    @Benchmark
+    public byte[] serializeTaskHome() {
+        return serialize(taskHome);
+    }
+
+    @Benchmark
+    public Object deserializeTaskHome() {
+        return deserialize(serializedTaskHome);
+    }
+
+    @Benchmark
+    public byte[] serializeEditTaskAction() {
+        return serialize(editTaskAction);
+    }
+
+    private static void inject(Object bean, String name, Object value) throws ReflectiveOperationException {
+        Field field = bean.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(bean, value);
+    }
+
+    private static byte[] serialize(Serializable object) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Serves the board queries from memory, so only the view model is measured.
+     */
+    static class InMemoryTaskRepository extends TaskRepository {
+
+        private final Map<Status, List<TaskSummary>> byStatus = new EnumMap<>(Status.class);
+
+        InMemoryTaskRepository(List<Task> tasks) {
+            for (Status status : Status.values()) {
+                byStatus.put(status, new ArrayList<>());
+            }
+            for (Task task : tasks) {
+                String description = task.getDescription();
+                String preview = description.substring(0, Math.min(description.length(), TaskSummary.PREVIEW_LENGTH));
+                byStatus.get(task.getStatus()).add(new TaskSummary(task.getId(), task.getName(), preview,
+                        description.length(), task.getStatus(), task.getCreatedDate(), task.getLastModifiedDate(),
+                        task.getVersion()));
+            }
+        }
+
+        @Override
+        public List<TaskSummary> findSummariesByStatus(Status status, Long after, int size) {
+            return byStatus.get(status).stream()
+                    .filter(task -> after == null || task.id() > after)
+                    .limit(size)
+                    .toList();
+        }
+
+        @Override
+        public Map<Status, List<TaskSummary>> findFirstPageGroupedByStatus(int size) {
+            Map<Status, List<TaskSummary>> grouped = new EnumMap<>(Status.class);
+            for (Status status : Status.values()) {
+                grouped.put(status, findSummariesByStatus(status, null, size));
+            }
+            return grouped;
+        }
+    }
+}
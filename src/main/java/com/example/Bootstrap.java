@@ -2,6 +2,7 @@ package com.example;
 
 import com.example.domain.Status;
 import com.example.domain.Task;
+import com.example.domain.TaskImporter;
 import com.example.domain.TaskRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
@@ -9,8 +10,11 @@ import jakarta.enterprise.event.Startup;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 
@@ -24,9 +28,27 @@ public class Bootstrap {
     @Inject
     TaskRepository taskRepository;
 
+    @Inject
+    TaskImporter taskImporter;
+
     public void init(@Observes Startup startup) {
         LOG.log(Level.INFO, "bootstraping application...");
 
+        // the schema is kept between restarts in production, do not seed it again
+        if (taskRepository.count() > 0) {
+            LOG.log(Level.INFO, "tasks found, skip seeding sample data.");
+            return;
+        }
+
+        // eg. -Dtaskboard.seed.count=1000000 to benchmark a large board
+        long seedCount = Long.getLong("taskboard.seed.count", 0);
+        if (seedCount > 0) {
+            LOG.log(Level.INFO, "seeding {0} synthetic tasks...", seedCount);
+            TaskImporter.ImportResult result = taskImporter.importTasks(syntheticTasks(seedCount));
+            LOG.log(Level.INFO, "seeded: {0}", result);
+            return;
+        }
+
         Stream.of("first", "second")
                 .map(s -> {
                     Task task = new Task();
@@ -38,4 +60,23 @@ public class Bootstrap {
                 .map(data -> taskRepository.save(data))
                 .forEach(task -> LOG.log(Level.INFO, " task saved: {0}", new Object[]{task}));
     }
+
+    /**
+     * Generated lazily, most tasks are done as on a long living board, created over the last year.
+     */
+    private Iterator<Task> syntheticTasks(long count) {
+        LocalDateTime now = LocalDateTime.now();
+        return LongStream.range(0, count)
+                .mapToObj(i -> {
+                    Task task = Task.of("Task " + i, "The description of the synthetic task " + i);
+                    long bucket = i % 10;
+                    task.setStatus(bucket == 0 ? Status.TODO : (bucket == 1 ? Status.DOING : Status.DONE));
+                    task.setCreatedDate(now.minusMinutes(count - i).minusDays(i % 365));
+                    if (task.getStatus() != Status.TODO) {
+                        task.setLastModifiedDate(now.minusMinutes(count - i));
+                    }
+                    return task;
+                })
+                .iterator();
+    }
 }
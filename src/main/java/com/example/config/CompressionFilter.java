@@ -0,0 +1,335 @@
+package com.example.config;
+
+import com.example.metrics.CompressionMetrics;
+import jakarta.faces.application.ResourceHandler;
+import jakarta.inject.Inject;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses the Faces responses on the fly with gzip, when the client accepts it.
+ * <p>
+ * A response is held until it reaches {@code taskboard.compression.threshold} bytes (default 1024): a smaller one is
+ * sent as it is, with its length. A larger one is streamed through the deflater as it is rendered, with the level
+ * {@code taskboard.compression.level} (default 6, 1 is the fastest, 9 the smallest) and a buffer of
+ * {@code taskboard.compression.buffer-size} bytes (default 8192). A flush of the page flushes the deflater, so the
+ * first bytes leave before the whole page is rendered, see the {@code FACELETS_BUFFER_SIZE} in {@code web.xml}.
+ * <p>
+ * The responses already encoded, eg. by the {@link FingerprintResourceHandler}, or not text are left untouched. The
+ * sizes of the full pages, of the partial responses and of the resources, and the CPU time spent compressing are
+ * recorded into {@link CompressionMetrics}.
+ * <p>
+ * The response can be reset until the wrapped response is committed, eg. to render an error page instead.
+ * <p>
+ * The JDK has no brotli encoder, the pages are only gzipped.
+ *
+ * @author hantsy
+ */
+@WebFilter(urlPatterns = {"*.xhtml", "/faces/*"})
+public class CompressionFilter extends HttpFilter {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int THRESHOLD = Integer.getInteger("taskboard.compression.threshold", 1024);
+
+    static final int LEVEL = Integer.getInteger("taskboard.compression.level", 6);
+
+    static final int BUFFER_SIZE = Integer.getInteger("taskboard.compression.buffer-size", 8192);
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    @Inject
+    CompressionMetrics metrics;
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        response.addHeader("Vary", "Accept-Encoding");
+        if ("HEAD".equals(request.getMethod())
+                || !FingerprintResourceHandler.accepts(request.getHeader("Accept-Encoding"), "gzip")) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        CompressionMetrics.Response kind = request.getRequestURI().contains(ResourceHandler.RESOURCE_IDENTIFIER)
+                ? CompressionMetrics.Response.RESOURCE
+                : "partial/ajax".equals(request.getHeader("Faces-Request"))
+                ? CompressionMetrics.Response.PARTIAL
+                : CompressionMetrics.Response.PAGE;
+        CompressingResponse compressing = new CompressingResponse(response, kind);
+        chain.doFilter(request, compressing);
+        compressing.finish();
+    }
+
+    /**
+     * The CPU time of the current thread, the elapsed time when the JVM does not measure it.
+     */
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Buffers the body up to the threshold, then decides to compress it or to send it as it is.
+     */
+    private class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final ServletOutputStream body = new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                CompressingResponse.this.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                // below the threshold the body is held until the end, to send it with its length
+                if (target != null) {
+                    target.flush();
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                throw new IllegalStateException("non-blocking writes are not supported by the compression");
+            }
+        };
+
+        private final CompressionMetrics.Response kind;
+
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(THRESHOLD);
+
+        /**
+         * The stream the body is written to past the threshold, {@code null} until then.
+         */
+        private OutputStream target;
+
+        private GZIPOutputStream gzip;
+
+        private CountingOutputStream compressed;
+
+        private PrintWriter writer;
+
+        private boolean streamUsed;
+
+        private long contentLength = -1;
+
+        private long bytesIn;
+
+        private long cpuNanos;
+
+        CompressingResponse(HttpServletResponse response, CompressionMetrics.Response kind) {
+            super(response);
+            this.kind = kind;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            streamUsed = true;
+            return body;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (streamUsed) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(body, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (target == null) {
+                contentLength = len;
+            } else if (gzip == null) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            body.flush();
+            if (target != null) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            checkNotCommitted();
+            boolean started = target != null;
+            boolean compressing = gzip != null;
+            super.resetBuffer();
+            discard();
+            if (started) {
+                // the headers are kept, the body starts again behind them, with a new deflater when compressed
+                try {
+                    start(compressing);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        @Override
+        public void reset() {
+            checkNotCommitted();
+            super.reset();
+            discard();
+            contentLength = -1;
+            addHeader("Vary", "Accept-Encoding");
+        }
+
+        private void checkNotCommitted() {
+            if (isCommitted()) {
+                throw new IllegalStateException("the response is already committed");
+            }
+        }
+
+        /**
+         * Drops the body written so far, the bytes in the deflater with it, back to buffering up to the threshold.
+         */
+        private void discard() {
+            buffer = new ByteArrayOutputStream(THRESHOLD);
+            target = null;
+            gzip = null;
+            compressed = null;
+            bytesIn = 0;
+            // the chars pending in the writer are dropped with it, a new one is created on demand
+            writer = null;
+        }
+
+        private void write(byte[] b, int off, int len) throws IOException {
+            bytesIn += len;
+            if (target == null) {
+                if (buffer.size() + len <= THRESHOLD) {
+                    buffer.write(b, off, len);
+                    return;
+                }
+                start(isCompressible());
+            }
+            writeTarget(b, off, len);
+        }
+
+        private void writeTarget(byte[] b, int off, int len) throws IOException {
+            if (gzip == null) {
+                target.write(b, off, len);
+                return;
+            }
+            long start = cpuTime();
+            gzip.write(b, off, len);
+            cpuNanos += cpuTime() - start;
+        }
+
+        private void start(boolean compress) throws IOException {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (compress) {
+                response.setHeader("Content-Encoding", "gzip");
+                compressed = new CountingOutputStream(response.getOutputStream());
+                gzip = new GZIPOutputStream(compressed, BUFFER_SIZE, true) {
+                    {
+                        def.setLevel(LEVEL);
+                    }
+                };
+                target = gzip;
+            } else {
+                if (contentLength >= 0) {
+                    response.setContentLengthLong(contentLength);
+                }
+                target = response.getOutputStream();
+            }
+            ByteArrayOutputStream buffered = buffer;
+            buffer = null;
+            writeTarget(buffered.toByteArray(), 0, buffered.size());
+        }
+
+        private boolean isCompressible() {
+            int status = getStatus();
+            return getHeader("Content-Encoding") == null
+                    && status != SC_NO_CONTENT && status != SC_NOT_MODIFIED
+                    && getContentType() != null && FingerprintResourceHandler.isCompressible(getContentType());
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                // not committed unless an error or a redirect was sent instead
+                if (buffer.size() > 0 && !isCommitted()) {
+                    contentLength = buffer.size();
+                    start(false);
+                }
+                metrics.recordUncompressed(kind, bytesIn);
+            } else if (gzip == null) {
+                metrics.recordUncompressed(kind, bytesIn);
+            } else {
+                long start = cpuTime();
+                gzip.finish();
+                cpuNanos += cpuTime() - start;
+                metrics.recordCompressed(kind, bytesIn, compressed.count, cpuNanos);
+            }
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.config;
 
+import com.example.domain.TaskConflictException;
 import com.example.domain.TaskNotFoundException;
 
 import jakarta.faces.FacesException;
+import jakarta.faces.application.FacesMessage;
 import jakarta.faces.application.NavigationHandler;
 import jakarta.faces.application.ViewExpiredException;
 import jakarta.faces.context.ExceptionHandler;
@@ -10,6 +12,7 @@ import jakarta.faces.context.ExceptionHandlerWrapper;
 import jakarta.faces.context.FacesContext;
 import jakarta.faces.event.ExceptionQueuedEvent;
 import jakarta.faces.event.ExceptionQueuedEventContext;
+import jakarta.persistence.OptimisticLockException;
 import java.util.Iterator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -25,15 +28,27 @@ public class DefaultExceptionHandler extends ExceptionHandlerWrapper {
 
     @Override
     public void handle() throws FacesException {
-        LOG.log(Level.INFO, ">>>>>>>>invoking custom ExceptionHandlder...");
+        LOG.log(Level.FINE, ">>>>>>>>invoking custom ExceptionHandlder...");
         Iterator<ExceptionQueuedEvent> events = getUnhandledExceptionQueuedEvents().iterator();
 
         while (events.hasNext()) {
             ExceptionQueuedEvent event = events.next();
             ExceptionQueuedEventContext context =  event.getContext();
             Throwable t = context.getException();
-            LOG.log(Level.INFO, "Exception@{0}", t.getClass().getName());
-            LOG.log(Level.INFO, "ExceptionHandlder began.");
+            // the missing tasks are frequent and expected, eg. stale links, handled first and quietly
+            TaskNotFoundException notFound = notFoundOf(t);
+            if (notFound != null) {
+                try {
+                    handleNotFoundException(notFound);
+                } finally {
+                    events.remove();
+                }
+                continue;
+            }
+
+            // the conflicts are expected too, only the unexpected exceptions are logged at INFO
+            LOG.log(isConflict(t) ? Level.FINE : Level.INFO, "Exception@{0}", t.getClass().getName());
+            LOG.log(Level.FINE, "ExceptionHandlder began.");
             //t.printStackTrace();
             if (t instanceof ViewExpiredException) {
                 try {
@@ -41,9 +56,9 @@ public class DefaultExceptionHandler extends ExceptionHandlerWrapper {
                 } finally {
                     events.remove();
                 }
-            } else if (t instanceof TaskNotFoundException) {
+            } else if (isConflict(t)) {
                 try {
-                    handleNotFoundException((TaskNotFoundException) t);
+                    handleConflictException(t);
                 } finally {
                     events.remove();
                 }
@@ -51,28 +66,73 @@ public class DefaultExceptionHandler extends ExceptionHandlerWrapper {
                 
             }
             
-            LOG.log(Level.INFO, "ExceptionHandlder end.");
+            LOG.log(Level.FINE, "ExceptionHandlder end.");
         }
         getWrapped().handle();
 
     }
 
     private void handleViewExpiredException(ViewExpiredException vee) {
-        LOG.log(Level.INFO, " handling viewExpiredException{0}", vee.getMessage());
+        LOG.log(Level.FINE, " handling viewExpiredException{0}", vee.getMessage());
         FacesContext context = FacesContext.getCurrentInstance();
         String viewId = vee.getViewId();
-        LOG.log(Level.INFO, "view id @{0}", viewId);
+        LOG.log(Level.FINE, "view id @{0}", viewId);
         NavigationHandler nav
                 = context.getApplication().getNavigationHandler();
         nav.handleNavigation(context, null, viewId);
         context.renderResponse();
     }
 
+    /**
+     * A task changed by someone else, either detected by a conditional update or by the version check
+     * of the persistence provider. Both are usually wrapped by the EL or transaction exceptions.
+     */
+    private boolean isConflict(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TaskConflictException || cause instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A missing task, usually wrapped by the EL or Faces exceptions of the action or the view action.
+     */
+    private TaskNotFoundException notFoundOf(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TaskNotFoundException notFound) {
+                return notFound;
+            }
+        }
+        return null;
+    }
+
+    private void handleConflictException(Throwable e) {
+        LOG.log(Level.FINE, "handling conflict:{0}", e.getMessage());
+        FacesContext context = FacesContext.getCurrentInstance();
+        String viewId = context.getViewRoot().getViewId();
+        LOG.log(Level.FINE, "view id @{0}", viewId);
+
+        context.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_WARN,
+                "The task was changed by someone else!", "The latest version is loaded, please try again."));
+        context.getExternalContext().getFlash().setKeepMessages(true);
+
+        // redirect to the same view to load the current data
+        NavigationHandler nav
+                = context.getApplication().getNavigationHandler();
+        nav.handleNavigation(context, null, viewId + "?faces-redirect=true&includeViewParams=true");
+        context.renderResponse();
+    }
+
     private void handleNotFoundException(TaskNotFoundException e) {
-        LOG.log(Level.INFO, "handling exception:{0}", e.getMessage());
+        LOG.log(Level.FINE, "handling exception:{0}", e.getMessage());
         FacesContext context = FacesContext.getCurrentInstance();
         String viewId = "/error.xhtml";
-        LOG.log(Level.INFO, "view id @{0}", viewId);
+        if (!context.getPartialViewContext().isAjaxRequest()) {
+            // tells the crawlers to drop the link, a partial response has to be a 200 to be applied
+            context.getExternalContext().setResponseStatus(404);
+        }
 
         ViewHandler viewHandler = context.getApplication().getViewHandler();
         context.setViewRoot(viewHandler.createView(context, viewId));
@@ -0,0 +1,345 @@
+package com.example.config;
+
+import jakarta.faces.application.ProjectStage;
+import jakarta.faces.application.Resource;
+import jakarta.faces.application.ResourceHandler;
+import jakarta.faces.application.ResourceHandlerWrapper;
+import jakarta.faces.application.ResourceWrapper;
+import jakarta.faces.context.ExternalContext;
+import jakarta.faces.context.FacesContext;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.MappingMatch;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves the resources of the application, eg. the vendored Bootstrap under {@code WEB-INF/resources}, with a
+ * fingerprint of their content in their URL so the browsers cache them for good.
+ * <p>
+ * The request path of a resource carries a {@code v} parameter, the hash of its content. A request with the current
+ * hash is answered with {@code Cache-Control: immutable} for a year, a changed resource gets a new URL. The relative
+ * {@code url(...)} of a stylesheet, eg. the fonts of the icons, are rewritten to the fingerprinted URLs of the
+ * resources they point to.
+ * <p>
+ * The content is read once and kept in memory, with a gzip variant of the text resources. A precompressed
+ * {@code .br} or {@code .gz} file next to a resource is served instead, picked by the {@code Accept-Encoding} of the
+ * request. In the {@code Development} project stage a resource changed on disk is read again.
+ * <p>
+ * The resources of the libraries, eg. {@code faces.js}, and the requests without the current hash are left to the
+ * default handler.
+ *
+ * @author hantsy
+ */
+public class FingerprintResourceHandler extends ResourceHandlerWrapper {
+
+    private static final Logger LOGGER = Logger.getLogger(FingerprintResourceHandler.class.getName());
+
+    static final String VERSION_PARAM = "v";
+
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private static final String DEFAULT_RESOURCES_DIRECTORY = "/resources";
+
+    private static final Pattern CSS_URL = Pattern.compile("url\\(\\s*(['\"]?)([^'\")]+)\\1\\s*\\)");
+
+    /**
+     * The resources by library and name, empty for a resource of a page not found in the application.
+     */
+    private final Map<String, Optional<Asset>> assets = new ConcurrentHashMap<>();
+
+    public FingerprintResourceHandler(ResourceHandler wrapped) {
+        super(wrapped);
+    }
+
+    /**
+     * @param hash     the fingerprint of the identity content.
+     * @param gzip     the gzip variant, {@code null} when it is not smaller.
+     * @param brotli   the precompressed brotli variant, {@code null} when there is none.
+     */
+    private record Asset(String contentType, String hash, byte[] identity, byte[] gzip, byte[] brotli,
+                         long lastModified) {
+    }
+
+    @Override
+    public Resource createResource(String resourceName) {
+        return fingerprinted(super.createResource(resourceName), resourceName, null);
+    }
+
+    @Override
+    public Resource createResource(String resourceName, String libraryName) {
+        return fingerprinted(super.createResource(resourceName, libraryName), resourceName, libraryName);
+    }
+
+    @Override
+    public Resource createResource(String resourceName, String libraryName, String contentType) {
+        return fingerprinted(super.createResource(resourceName, libraryName, contentType), resourceName, libraryName);
+    }
+
+    @Override
+    public void handleResourceRequest(FacesContext context) throws IOException {
+        Asset asset = requestedAsset(context);
+        if (asset == null) {
+            super.handleResourceRequest(context);
+            return;
+        }
+
+        ExternalContext externalContext = context.getExternalContext();
+        String acceptEncoding = externalContext.getRequestHeaderMap().get("Accept-Encoding");
+        byte[] content = asset.identity();
+        String encoding = null;
+        if (asset.brotli() != null && accepts(acceptEncoding, "br")) {
+            content = asset.brotli();
+            encoding = "br";
+        } else if (asset.gzip() != null && accepts(acceptEncoding, "gzip")) {
+            content = asset.gzip();
+            encoding = "gzip";
+        }
+
+        // a strong tag is per representation, each encoding has its own
+        String etag = "\"" + asset.hash() + (encoding == null ? "" : "-" + encoding) + "\"";
+        externalContext.setResponseHeader("Cache-Control", IMMUTABLE);
+        externalContext.setResponseHeader("ETag", etag);
+        externalContext.setResponseHeader("Vary", "Accept-Encoding");
+        if (etag.equals(externalContext.getRequestHeaderMap().get("If-None-Match"))) {
+            externalContext.setResponseStatus(304);
+            return;
+        }
+
+        if (encoding != null) {
+            externalContext.setResponseHeader("Content-Encoding", encoding);
+        }
+        externalContext.setResponseContentType(asset.contentType());
+        externalContext.setResponseContentLength(content.length);
+        externalContext.getResponseOutputStream().write(content);
+    }
+
+    private Resource fingerprinted(Resource resource, String resourceName, String libraryName) {
+        if (resource == null) {
+            return null;
+        }
+        FacesContext context = FacesContext.getCurrentInstance();
+        Asset asset = context == null ? null : asset(context, resourceName, libraryName, true);
+        if (asset == null) {
+            return resource;
+        }
+        return new ResourceWrapper(resource) {
+            @Override
+            public String getRequestPath() {
+                String path = super.getRequestPath();
+                return path + (path.contains("?") ? "&" : "?") + VERSION_PARAM + "=" + asset.hash();
+            }
+        };
+    }
+
+    /**
+     * The resource of the request when it carries the current hash.
+     */
+    private Asset requestedAsset(FacesContext context) {
+        ExternalContext externalContext = context.getExternalContext();
+        String version = externalContext.getRequestParameterMap().get(VERSION_PARAM);
+        if (version == null || !(externalContext.getRequest() instanceof HttpServletRequest request)) {
+            return null;
+        }
+
+        String path;
+        HttpServletMapping mapping = request.getHttpServletMapping();
+        if (mapping.getMappingMatch() == MappingMatch.EXTENSION) {
+            // eg. /jakarta.faces.resource/css/main.css.xhtml mapped to *.xhtml
+            String suffix = mapping.getPattern().substring(1);
+            path = request.getServletPath();
+            path = path.endsWith(suffix) ? path.substring(0, path.length() - suffix.length()) : path;
+        } else {
+            path = request.getPathInfo();
+        }
+        if (path == null || !path.startsWith(RESOURCE_IDENTIFIER + "/")) {
+            return null;
+        }
+
+        String resourceName = path.substring(RESOURCE_IDENTIFIER.length() + 1);
+        // the names of the requests are not trusted, their misses are not remembered
+        Asset asset = asset(context, resourceName, externalContext.getRequestParameterMap().get("ln"), false);
+        return asset != null && asset.hash().equals(version) ? asset : null;
+    }
+
+    /**
+     * @param rememberMiss whether to remember a resource not found, only for the names known to the application.
+     */
+    private Asset asset(FacesContext context, String resourceName, String libraryName, boolean rememberMiss) {
+        if (resourceName.contains("..") || (libraryName != null && libraryName.contains(".."))) {
+            return null;
+        }
+        String key = libraryName + ":" + resourceName;
+        // not computeIfAbsent, rewriting a stylesheet reads the resources it points to
+        Optional<Asset> asset = assets.get(key);
+        if (asset == null || (asset.isPresent() && isModified(context, resourceName, libraryName, asset.get()))) {
+            asset = Optional.ofNullable(load(context, resourceName, libraryName));
+            if (asset.isPresent() || rememberMiss) {
+                assets.put(key, asset);
+            }
+        }
+        return asset.orElse(null);
+    }
+
+    private boolean isModified(FacesContext context, String resourceName, String libraryName, Asset asset) {
+        return context.isProjectStage(ProjectStage.Development)
+                && lastModified(context, pathOf(context, resourceName, libraryName)) != asset.lastModified();
+    }
+
+    private Asset load(FacesContext context, String resourceName, String libraryName) {
+        ExternalContext externalContext = context.getExternalContext();
+        String path = pathOf(context, resourceName, libraryName);
+        byte[] identity = read(externalContext, path);
+        if (identity == null) {
+            return null;
+        }
+
+        String contentType = externalContext.getMimeType(resourceName);
+        if (contentType == null) {
+            contentType = "application/octet-stream";
+        }
+        if (contentType.equals("text/css")) {
+            identity = rewriteUrls(context, new String(identity, StandardCharsets.UTF_8), resourceName, libraryName)
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+
+        byte[] gzip = read(externalContext, path + ".gz");
+        if (gzip == null && isCompressible(contentType)) {
+            gzip = gzip(identity);
+        }
+        if (gzip != null && gzip.length >= identity.length) {
+            gzip = null;
+        }
+        byte[] brotli = read(externalContext, path + ".br");
+
+        Asset asset = new Asset(contentType, hash(identity), identity, gzip, brotli, lastModified(context, path));
+        LOGGER.log(Level.FINE, "fingerprinted {0}: {1}, {2} bytes, gzip {3}, brotli {4}", new Object[]{
+                path, asset.hash(), identity.length, gzip == null ? "-" : gzip.length, brotli == null ? "-" : brotli.length});
+        return asset;
+    }
+
+    /**
+     * Points the relative urls of a stylesheet to the fingerprinted resources of the same library.
+     */
+    private String rewriteUrls(FacesContext context, String css, String resourceName, String libraryName) {
+        String directory = resourceName.substring(0, resourceName.lastIndexOf('/') + 1);
+        Matcher matcher = CSS_URL.matcher(css);
+        StringBuilder rewritten = new StringBuilder();
+        while (matcher.find()) {
+            String url = matcher.group(2).trim();
+            String replacement = matcher.group();
+            if (!url.startsWith("data:") && !url.startsWith("/") && !url.startsWith("#") && !url.contains("://")) {
+                int end = indexOfAny(url, '?', '#');
+                String fragment = url.indexOf('#') < 0 ? "" : url.substring(url.indexOf('#'));
+                String target = URI.create(directory + url.substring(0, end)).normalize().getPath();
+                Resource resource = target.startsWith("..") ? null : createResource(target, libraryName);
+                if (resource != null) {
+                    replacement = "url(\"" + resource.getRequestPath() + fragment + "\")";
+                }
+            }
+            matcher.appendReplacement(rewritten, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(rewritten);
+        return rewritten.toString();
+    }
+
+    private static String pathOf(FacesContext context, String resourceName, String libraryName) {
+        String directory = context.getExternalContext()
+                .getInitParameter(ResourceHandler.WEBAPP_RESOURCES_DIRECTORY_PARAM_NAME);
+        return (directory == null ? DEFAULT_RESOURCES_DIRECTORY : directory)
+                + "/" + (libraryName == null ? "" : libraryName + "/") + resourceName;
+    }
+
+    private static byte[] read(ExternalContext externalContext, String path) {
+        try (InputStream in = externalContext.getResourceAsStream(path)) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long lastModified(FacesContext context, String path) {
+        try {
+            URL url = context.getExternalContext().getResource(path);
+            return url == null ? 0 : url.openConnection().getLastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, 8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static boolean isCompressible(String contentType) {
+        return contentType.startsWith("text/")
+                || contentType.contains("javascript")
+                || contentType.contains("json")
+                || contentType.contains("svg");
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header accepts an encoding, without weighing the alternatives.
+     */
+    static boolean accepts(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String accepted : acceptEncoding.split(",")) {
+            String[] parts = accepted.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(encoding)) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static int indexOfAny(String s, char... chars) {
+        int index = s.length();
+        for (char c : chars) {
+            int i = s.indexOf(c);
+            if (i >= 0 && i < index) {
+                index = i;
+            }
+        }
+        return index;
+    }
+}
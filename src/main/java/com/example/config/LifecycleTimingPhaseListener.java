@@ -0,0 +1,61 @@
+package com.example.config;
+
+import com.example.metrics.LifecycleMetrics;
+import jakarta.faces.component.UIViewRoot;
+import jakarta.faces.context.FacesContext;
+import jakarta.faces.event.PhaseEvent;
+import jakarta.faces.event.PhaseId;
+import jakarta.faces.event.PhaseListener;
+
+import jakarta.inject.Inject;
+
+/**
+ * Times every phase and every request of the Faces lifecycle into {@link LifecycleMetrics}.
+ * <p>
+ * The phases of a request run on the same thread, their start times are kept in a per-thread array.
+ */
+public class LifecycleTimingPhaseListener implements PhaseListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int REQUEST_START = 0;
+
+    // PhaseId.ANY_PHASE has ordinal 0 and is never fired, its slot holds the request start
+    private static final ThreadLocal<long[]> START_TIMES = ThreadLocal.withInitial(() -> new long[PhaseId.VALUES.size()]);
+
+    @Inject
+    LifecycleMetrics metrics;
+
+    @Override
+    public void beforePhase(PhaseEvent event) {
+        long now = System.nanoTime();
+        long[] startTimes = START_TIMES.get();
+        if (event.getPhaseId() == PhaseId.RESTORE_VIEW) {
+            startTimes[REQUEST_START] = now;
+        }
+        startTimes[event.getPhaseId().getOrdinal()] = now;
+    }
+
+    @Override
+    public void afterPhase(PhaseEvent event) {
+        long now = System.nanoTime();
+        long[] startTimes = START_TIMES.get();
+        PhaseId phaseId = event.getPhaseId();
+        metrics.recordPhase(phaseId, now - startTimes[phaseId.getOrdinal()]);
+
+        // the request ends after rendering, or earlier on a redirect or any other completed response
+        FacesContext context = event.getFacesContext();
+        if (phaseId == PhaseId.RENDER_RESPONSE || context.getResponseComplete()) {
+            UIViewRoot viewRoot = context.getViewRoot();
+            metrics.recordView(viewRoot == null ? "(none)" : viewRoot.getViewId(),
+                    context.getPartialViewContext().isAjaxRequest(),
+                    now - startTimes[REQUEST_START]);
+        }
+    }
+
+    @Override
+    public PhaseId getPhaseId() {
+        return PhaseId.ANY_PHASE;
+    }
+
+}
@@ -16,9 +16,15 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import static com.example.domain.Status.TODO;
 
 /**
@@ -26,10 +32,26 @@ import static com.example.domain.Status.TODO;
  * @author hantsy
  */
 @Entity
+@Table(indexes = {
+        // board columns, keyset paging by id within a status
+        @Index(name = "IDX_TASK_STATUS_ID", columnList = "status, id"),
+        // recent activity within a status
+        @Index(name = "IDX_TASK_STATUS_MODIFIED", columnList = "status, last_modified_date")
+})
 public class Task implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    static final String ID_GENERATOR = "TASK_ID";
+    static final String ID_TABLE = "ID_GENERATOR";
+    static final int ID_ALLOCATION_SIZE = 100;
+
+    /**
+     * The length of the {@code VARCHAR} columns, the JPA default made explicit for the bulk inserts.
+     */
+    static final int NAME_LENGTH = 255;
+    static final int DESCRIPTION_LENGTH = 255;
+
     public static final Comparator<Task> COMPARATOR = Comparator
             .comparing(Task::getName)
             .thenComparing(Task::getDescription);
@@ -43,6 +65,31 @@ public class Task implements Serializable {
             + "\n lastModifiedAt:" + t.getLastModifiedDate()
             + "]";
 
+    /**
+     * The date of the last change of a task, its creation date if it was never updated.
+     */
+    public static final Function<Task, LocalDateTime> REVISION_DATE = t
+            -> t.getLastModifiedDate() != null ? t.getLastModifiedDate() : t.getCreatedDate();
+
+    /**
+     * The revision date as an instant, the dates are stored in the time zone of the server.
+     */
+    public static Instant revisionInstant(Task task) {
+        LocalDateTime revisionDate = REVISION_DATE.apply(task);
+        return revisionDate == null ? null : revisionDate.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    /**
+     * An opaque tag of the revision of a task for the {@code ETag} of its representations. The revision date changes
+     * with every write, the version tells apart the writes of the same millisecond and the databases truncating the
+     * fractions of a second.
+     */
+    public static String revisionTag(Task task) {
+        Instant revision = revisionInstant(task);
+        return task.getId() + "-" + (revision == null ? 0 : Long.toString(revision.toEpochMilli(), 36))
+                + "-" + task.getVersion();
+    }
+
     public Task() {
     }
 
@@ -54,14 +101,21 @@ public class Task implements Serializable {
         return task;
     }
     
+    /**
+     * Ids are allocated by blocks of {@value #ID_ALLOCATION_SIZE} from the {@value #ID_TABLE} table, shared with the
+     * JDBC inserts of {@link TaskImporter}.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = ID_GENERATOR)
+    @TableGenerator(name = ID_GENERATOR, table = ID_TABLE,
+            pkColumnName = "GEN_NAME", valueColumnName = "GEN_VALUE", pkColumnValue = ID_GENERATOR,
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
-    @Column(name = "name")
+    @Column(name = "name", length = NAME_LENGTH)
     private String name;
 
-    @Column(name = "description")
+    @Column(name = "description", length = DESCRIPTION_LENGTH)
     private String description;
 
     @Enumerated(EnumType.STRING)
@@ -74,6 +128,10 @@ public class Task implements Serializable {
     @Column(name = "last_modified_date")
     private LocalDateTime lastModifiedDate;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -122,6 +180,14 @@ public class Task implements Serializable {
         this.lastModifiedDate = lastModifiedDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public int hashCode() {
        return Objects.hashCode(this.name);
@@ -0,0 +1,162 @@
+package com.example.domain;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caches the tasks read by id, the ids of the tasks not found, and the pages of the board columns.
+ * <p>
+ * The caches are configured with system properties, a max size of {@code 0} disables a cache:
+ * <ul>
+ *     <li>{@code taskboard.cache.task.max-size}, default 1000, and {@code taskboard.cache.task.ttl} in seconds, default 300</li>
+ *     <li>{@code taskboard.cache.missing.max-size}, default 10000, and {@code taskboard.cache.missing.ttl} in seconds, default 30</li>
+ *     <li>{@code taskboard.cache.page.max-size}, default 300, and {@code taskboard.cache.page.ttl} in seconds, default 60</li>
+ * </ul>
+ * The missing ids spare the database the lookups of the stale links and the crawlers. They are short-lived, an id
+ * is invalidated when a task is written with it.
+ * <p>
+ * A reader takes the {@link #generation()} before reading the database and passes it along with what it read: the
+ * entry is not cached if anything was invalidated meanwhile, it may have been read before the commit of that write.
+ * Cached tasks are copied in and out, callers are free to modify the tasks they get.
+ *
+ * @author hantsy
+ */
+@ApplicationScoped
+public class TaskCache {
+
+    private static final Logger LOGGER = Logger.getLogger(TaskCache.class.getName());
+
+    private ExpiringCache<Long, Task> tasks;
+
+    private ExpiringCache<Long, Boolean> missing;
+
+    private ExpiringCache<PageKey, List<TaskSummary>> pages;
+
+    /**
+     * Increased by every invalidation, the puts and the invalidations are serialized on it.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        tasks = new ExpiringCache<>("task",
+                Integer.getInteger("taskboard.cache.task.max-size", 1000),
+                Duration.ofSeconds(Long.getLong("taskboard.cache.task.ttl", 300)));
+        missing = new ExpiringCache<>("missing",
+                Integer.getInteger("taskboard.cache.missing.max-size", 10000),
+                Duration.ofSeconds(Long.getLong("taskboard.cache.missing.ttl", 30)));
+        pages = new ExpiringCache<>("page",
+                Integer.getInteger("taskboard.cache.page.max-size", 300),
+                Duration.ofSeconds(Long.getLong("taskboard.cache.page.ttl", 60)));
+        LOGGER.log(Level.INFO, "task caches initialized: {0}", stats());
+    }
+
+    public Task getTask(Long id) {
+        Task task = tasks.get(id);
+        return task == null ? null : copy(task);
+    }
+
+    /**
+     * The generation to take before reading what is put into the cache, see {@link #putTask(Task, long)}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches a task, unless an invalidation happened since the given generation was taken.
+     */
+    public void putTask(Task task, long generation) {
+        Task copy = copy(task);
+        synchronized (this.generation) {
+            if (this.generation.get() == generation) {
+                tasks.put(copy.getId(), copy);
+            }
+        }
+    }
+
+    /**
+     * Whether a task was recently looked up and not found.
+     */
+    public boolean isMissing(Long id) {
+        return missing.get(id) != null;
+    }
+
+    public void putMissing(Long id, long generation) {
+        synchronized (this.generation) {
+            if (this.generation.get() == generation) {
+                missing.put(id, Boolean.TRUE);
+            }
+        }
+    }
+
+    public List<TaskSummary> getPage(Status status, Long after, int size) {
+        return pages.get(new PageKey(status, after, size));
+    }
+
+    public void putPage(Status status, Long after, int size, List<TaskSummary> page, long generation) {
+        List<TaskSummary> copy = List.copyOf(page);
+        synchronized (this.generation) {
+            if (this.generation.get() == generation) {
+                pages.put(new PageKey(status, after, size), copy);
+            }
+        }
+    }
+
+    /**
+     * Invalidates the given tasks, missing or not, and all cached pages of the given statuses.
+     */
+    public void invalidate(Collection<Long> ids, Collection<Status> statuses) {
+        synchronized (generation) {
+            generation.incrementAndGet();
+            ids.forEach(tasks::invalidate);
+            ids.forEach(missing::invalidate);
+            if (!statuses.isEmpty()) {
+                pages.invalidateIf(key -> statuses.contains(key.status()));
+            }
+        }
+    }
+
+    /**
+     * Forgets all the missing ids, after inserting tasks whose ids are not known upfront.
+     */
+    public void invalidateMissing() {
+        synchronized (generation) {
+            generation.incrementAndGet();
+            missing.clear();
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (generation) {
+            generation.incrementAndGet();
+            tasks.clear();
+            missing.clear();
+            pages.clear();
+        }
+    }
+
+    public List<ExpiringCache.CacheStats> stats() {
+        return List.of(tasks.stats(), missing.stats(), pages.stats());
+    }
+
+    private static Task copy(Task task) {
+        Task copy = Task.of(task.getName(), task.getDescription());
+        copy.setId(task.getId());
+        copy.setStatus(task.getStatus());
+        copy.setCreatedDate(task.getCreatedDate());
+        copy.setLastModifiedDate(task.getLastModifiedDate());
+        copy.setVersion(task.getVersion());
+        return copy;
+    }
+
+    private record PageKey(Status status, Long after, int size) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * An entry of the change log of the tasks, see {@link TaskChangeLog}.
+ *
+ * @author hantsy
+ */
+@Entity
+@Table(name = "TASK_CHANGE", indexes = {
+        // compaction of the old entries
+        @Index(name = "IDX_TASK_CHANGE_DATE", columnList = "changed_date")
+})
+public class TaskChange implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Allocated by {@link TaskChangeLog}, increasing in the order of the writes.
+     */
+    @Id
+    @Column(name = "sequence_number")
+    private Long sequence;
+
+    /**
+     * {@code null} for the tasks bulk loaded into a status by an import.
+     */
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind")
+    private TaskChangedEvent.Kind kind;
+
+    /**
+     * The status after the change, the status before it for a deleted task.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private Status status;
+
+    @Column(name = "changed_date")
+    private LocalDateTime changedDate;
+
+    public TaskChange() {
+    }
+
+    TaskChange(Long sequence, Long taskId, TaskChangedEvent.Kind kind, Status status, LocalDateTime changedDate) {
+        this.sequence = sequence;
+        this.taskId = taskId;
+        this.kind = kind;
+        this.status = status;
+        this.changedDate = changedDate;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public TaskChangedEvent.Kind getKind() {
+        return kind;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getChangedDate() {
+        return changedDate;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskChange[" + sequence + " " + kind + " " + taskId + " " + status + "]";
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.domain;
+
+import com.example.metrics.Monitored;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.Startup;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.transaction.Transactional;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An append-only log of the changes of the tasks, for the clients to sync incrementally instead of reloading the
+ * whole board.
+ * <p>
+ * Every {@link TaskChangedEvent} appends an entry per task in the transaction of the write, numbered by an increasing
+ * sequence. A client reads the changes after the last sequence it has seen with {@link #changesSince(long, int)},
+ * reads the changed tasks again and removes the missing ones. An entry tells a task may have changed: a bulk write
+ * logs all the requested tasks, even the ones it skipped. An import logs an entry without task per status, the
+ * whole column has to be read again.
+ * <p>
+ * The sequences are allocated in memory when the entries are written, in a single application instance as the caches.
+ * The changes are only read up to the oldest uncommitted entry, so a client never skips an entry committed later.
+ * <p>
+ * The entries older than {@code taskboard.changes.retention} hours (default 24) are compacted every
+ * {@code taskboard.changes.compaction-interval} minutes (default 60), the newest entry is always kept. A client
+ * behind the compacted entries is told to reload everything.
+ *
+ * @author hantsy
+ */
+@ApplicationScoped
+@Transactional
+@Monitored
+public class TaskChangeLog {
+
+    private static final Logger LOGGER = Logger.getLogger(TaskChangeLog.class.getName());
+
+    private static final Duration RETENTION = Duration.ofHours(Long.getLong("taskboard.changes.retention", 24));
+    private static final long COMPACTION_INTERVAL = Long.getLong("taskboard.changes.compaction-interval", 60);
+
+    @Inject
+    EntityManager em;
+
+    @Resource
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Resource
+    ManagedScheduledExecutorService executor;
+
+    /**
+     * Guards the sequences below.
+     */
+    private final Object lock = new Object();
+
+    private boolean loaded;
+
+    private long lastSequence;
+
+    private long compactedSequence;
+
+    /**
+     * The first sequence of the entries of the running transactions.
+     */
+    private final NavigableSet<Long> uncommitted = new TreeSet<>();
+
+    /**
+     * @param changes the changes in the order of the sequences.
+     * @param next    the sequence to read the following changes from.
+     * @param reset   {@code true} when changes were compacted since the requested sequence, the client has to
+     *                reload everything then read the changes from {@code next}.
+     */
+    public record ChangeFeed(List<TaskChange> changes, long next, boolean reset) implements Serializable {
+    }
+
+    void init(@Observes Startup startup, TaskChangeLog changeLog) {
+        // through the contextual reference, in a transaction
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                changeLog.compact(RETENTION);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "failed to compact the task change log", e);
+            }
+        }, COMPACTION_INTERVAL, COMPACTION_INTERVAL, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Appends the change in the transaction of the write, the write fails if the entries can not be written.
+     */
+    void onTaskChanged(@Observes TaskChangedEvent event) {
+        List<Long> ids = event.ids().isEmpty() ? Collections.singletonList(null) : event.ids();
+        Status status = event.to() != null ? event.to() : event.from();
+
+        long first;
+        synchronized (lock) {
+            load();
+            first = lastSequence + 1;
+            lastSequence += ids.size();
+            uncommitted.add(first);
+        }
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (lock) {
+                    uncommitted.remove(first);
+                }
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        long sequence = first;
+        for (Long id : ids) {
+            em.persist(new TaskChange(sequence++, id, event.kind(), status, now));
+        }
+    }
+
+    /**
+     * The sequence of the last readable change, to read the changes following a full reload.
+     */
+    public long currentSequence() {
+        synchronized (lock) {
+            load();
+            return readableSequence();
+        }
+    }
+
+    /**
+     * @param since the last sequence the client has seen, {@code 0} for all the changes.
+     * @param limit the maximum number of changes to return.
+     */
+    public ChangeFeed changesSince(long since, int limit) {
+        long compacted;
+        long readable;
+        synchronized (lock) {
+            load();
+            compacted = compactedSequence;
+            readable = readableSequence();
+        }
+        // a sequence ahead of the log comes from a dropped database
+        if (since < compacted || since > readable) {
+            return new ChangeFeed(List.of(), readable, true);
+        }
+        if (since == readable) {
+            return new ChangeFeed(List.of(), since, false);
+        }
+
+        CriteriaBuilder cb = this.em.getCriteriaBuilder();
+
+        CriteriaQuery<TaskChange> q = cb.createQuery(TaskChange.class);
+        Root<TaskChange> c = q.from(TaskChange.class);
+        q.where(cb.gt(c.get(TaskChange_.sequence), since), cb.le(c.get(TaskChange_.sequence), readable));
+        q.orderBy(cb.asc(c.get(TaskChange_.sequence)));
+
+        List<TaskChange> changes = em.createQuery(q)
+                .setMaxResults(limit)
+                .getResultList();
+        // the gaps of the rolled back entries are skipped up to the readable sequence
+        long next = changes.size() < limit ? readable : changes.getLast().getSequence();
+        return new ChangeFeed(changes, next, false);
+    }
+
+    /**
+     * Deletes the entries older than the retention, except the newest one.
+     *
+     * @return the number of deleted entries.
+     */
+    public int compact(Duration retention) {
+        CriteriaBuilder cb = this.em.getCriteriaBuilder();
+
+        CriteriaQuery<Long> q = cb.createQuery(Long.class);
+        Root<TaskChange> c = q.from(TaskChange.class);
+        q.select(cb.max(c.get(TaskChange_.sequence)))
+                .where(cb.lessThan(c.get(TaskChange_.changedDate), LocalDateTime.now().minus(retention)));
+        Long expired = em.createQuery(q).getSingleResult();
+        if (expired == null) {
+            return 0;
+        }
+
+        CriteriaQuery<Long> newestQuery = cb.createQuery(Long.class);
+        newestQuery.select(cb.max(newestQuery.from(TaskChange.class).get(TaskChange_.sequence)));
+        long newest = em.createQuery(newestQuery).getSingleResult();
+
+        long through;
+        synchronized (lock) {
+            load();
+            // the newest entry keeps the sequence over the restarts
+            through = Math.min(expired, Math.min(readableSequence(), newest - 1));
+        }
+        if (through <= 0) {
+            return 0;
+        }
+
+        CriteriaDelete<TaskChange> d = cb.createCriteriaDelete(TaskChange.class);
+        Root<TaskChange> dc = d.from(TaskChange.class);
+        d.where(cb.le(dc.get(TaskChange_.sequence), through));
+        int deleted = em.createQuery(d).executeUpdate();
+
+        synchronized (lock) {
+            compactedSequence = Math.max(compactedSequence, through);
+        }
+        LOGGER.log(Level.INFO, "compacted {0} task changes up to the sequence {1}", new Object[]{deleted, through});
+        return deleted;
+    }
+
+    /**
+     * The entries before the oldest uncommitted one are committed or rolled back.
+     */
+    private long readableSequence() {
+        return uncommitted.isEmpty() ? lastSequence : uncommitted.first() - 1;
+    }
+
+    /**
+     * Reads the sequences of the entries kept from the previous runs, once.
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        CriteriaBuilder cb = this.em.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> q = cb.createTupleQuery();
+        Root<TaskChange> c = q.from(TaskChange.class);
+        q.select(cb.tuple(cb.min(c.get(TaskChange_.sequence)), cb.max(c.get(TaskChange_.sequence))));
+        Tuple range = em.createQuery(q).getSingleResult();
+
+        if (range.get(1) != null) {
+            lastSequence = range.get(1, Long.class);
+            // rolled back entries may follow the compacted ones, clients may be reset needlessly, never wrongly
+            compactedSequence = range.get(0, Long.class) - 1;
+        }
+        loaded = true;
+        LOGGER.log(Level.INFO, "task change log starting after the sequence {0}", lastSequence);
+    }
+}
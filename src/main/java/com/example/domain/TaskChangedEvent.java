@@ -0,0 +1,65 @@
+package com.example.domain;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fired by {@link TaskRepository} within the transaction of every write.
+ * <p>
+ * A bulk write fires a single event: {@code ids} are the requested tasks, {@code affected} is the number of
+ * rows actually written, which can be smaller when some tasks were not in the expected status any more.
+ * An import fires an event per status without the ids, see {@link #imported(Status, int)}.
+ *
+ * @param kind     the kind of change.
+ * @param ids      the ids of the changed tasks.
+ * @param from     the status before the change, {@code null} for a created task.
+ * @param to       the status after the change, {@code null} for a deleted task.
+ * @param affected the number of written rows.
+ * @author hantsy
+ */
+public record TaskChangedEvent(Kind kind, List<Long> ids, Status from, Status to, int affected) {
+
+    public enum Kind {
+        CREATED, UPDATED, STATUS_CHANGED, DELETED
+    }
+
+    public static TaskChangedEvent created(Task task) {
+        return new TaskChangedEvent(Kind.CREATED, List.of(task.getId()), null, task.getStatus(), 1);
+    }
+
+    public static TaskChangedEvent updated(Task task, Status previous) {
+        Kind kind = previous == task.getStatus() ? Kind.UPDATED : Kind.STATUS_CHANGED;
+        return new TaskChangedEvent(kind, List.of(task.getId()), previous, task.getStatus(), 1);
+    }
+
+    public static TaskChangedEvent moved(Collection<Long> ids, Status from, Status to, int affected) {
+        return new TaskChangedEvent(Kind.STATUS_CHANGED, List.copyOf(ids), from, to, affected);
+    }
+
+    /**
+     * Tasks bulk loaded into a status, their ids are not listed.
+     */
+    public static TaskChangedEvent imported(Status status, int affected) {
+        return new TaskChangedEvent(Kind.CREATED, List.of(), null, status, affected);
+    }
+
+    public static TaskChangedEvent deleted(Collection<Long> ids, Status status, int affected) {
+        return new TaskChangedEvent(Kind.DELETED, List.copyOf(ids), status, null, affected);
+    }
+
+    /**
+     * The board columns touched by the change.
+     */
+    public Set<Status> statuses() {
+        Set<Status> statuses = EnumSet.noneOf(Status.class);
+        if (from != null) {
+            statuses.add(from);
+        }
+        if (to != null) {
+            statuses.add(to);
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.domain;
+
+public class TaskConflictException extends RuntimeException {
+
+	public TaskConflictException(Long taskId) {
+		super(String.format("task id:%s was changed by someone else!", taskId));
+	}
+
+}
@@ -0,0 +1,449 @@
+package com.example.domain;
+
+import jakarta.annotation.Resource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.transaction.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bulk loads tasks with batched JDBC inserts, bypassing the persistence context.
+ * <p>
+ * The input is streamed, only a batch is held in memory. The ids are reserved by batches from the table generator
+ * of {@link Task}, and the work is committed every {@code taskboard.import.commit-interval} rows (default 10000),
+ * a failure only rolls back the rows since the last commit. Rows without a name or a description, or with a value
+ * longer than its column, are skipped and reported.
+ * <p>
+ * The caches of the imported statuses are invalidated, and a {@link TaskChangedEvent#imported(Status, int)} is
+ * fired per status once the import is done, or stopped by a database or a read error.
+ *
+ * @author hantsy
+ */
+@ApplicationScoped
+@Transactional(Transactional.TxType.NOT_SUPPORTED)
+public class TaskImporter {
+
+    private static final Logger LOGGER = Logger.getLogger(TaskImporter.class.getName());
+
+    private static final String INSERT_TASK = "INSERT INTO TASK (ID, NAME, DESCRIPTION, STATUS, CREATED_DATE, LAST_MODIFIED_DATE, VERSION) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String RESERVE_IDS = "UPDATE " + Task.ID_TABLE + " SET GEN_VALUE = GEN_VALUE + ? WHERE GEN_NAME = ?";
+    private static final String SELECT_IDS = "SELECT GEN_VALUE FROM " + Task.ID_TABLE + " WHERE GEN_NAME = ?";
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String INSERT_IDS = "INSERT INTO " + Task.ID_TABLE + " (GEN_NAME, GEN_VALUE) VALUES (?, ?)";
+
+    public enum Format {
+        /**
+         * Comma separated {@code name,description[,status]} with a header line, fields may be double-quoted.
+         */
+        CSV,
+        /**
+         * A JSON object per line, eg. {@code {"name": "...", "description": "...", "status": "TODO"}}.
+         */
+        JSONL
+    }
+
+    /**
+     * @param imported the number of inserted tasks.
+     * @param rejected the number of skipped rows.
+     * @param errors   the first errors, with the number of the offending row.
+     * @param millis   the duration of the import.
+     */
+    public record ImportResult(long imported, long rejected, List<String> errors, long millis) {
+    }
+
+    @Resource(lookup = "java:comp/DefaultDataSource")
+    DataSource dataSource;
+
+    @Inject
+    TaskCache taskCache;
+
+    @Inject
+    Event<TaskChangedEvent> taskChangedEvent;
+
+    private final int batchSize = Integer.getInteger("taskboard.import.batch-size", 1000);
+
+    private final int commitInterval = Integer.getInteger("taskboard.import.commit-interval", 10_000);
+
+    public ImportResult importTasks(InputStream input, Format format) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Rows rows = format == Format.CSV ? new CsvRows(reader) : new JsonRows(reader);
+        return importTasks(rows);
+    }
+
+    /**
+     * Imports the tasks of an iterator, eg. generated ones. The iterator is consumed lazily, a task
+     * without a created date is created now.
+     */
+    public ImportResult importTasks(Iterator<Task> tasks) {
+        Rows rows = new Rows() {
+            @Override
+            public boolean hasNext() {
+                return tasks.hasNext();
+            }
+
+            @Override
+            public Task next() {
+                return tasks.next();
+            }
+        };
+        return importTasks(rows);
+    }
+
+    private ImportResult importTasks(Rows rows) {
+        long start = System.nanoTime();
+        long imported = 0;
+        long rejected = 0;
+        List<String> errors = new ArrayList<>();
+        Map<Status, Integer> importedByStatus = new EnumMap<>(Status.class);
+        Map<Status, Integer> uncommittedByStatus = new EnumMap<>(Status.class);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement insert = conn.prepareStatement(INSERT_TASK)) {
+            conn.setAutoCommit(false);
+            try {
+                long nextId = 0;
+                long lastId = -1;
+                int batched = 0;
+                int uncommitted = 0;
+                LocalDateTime now = LocalDateTime.now();
+                while (rows.hasNext()) {
+                    Task task;
+                    try {
+                        task = rows.next();
+                        checkLengths(task);
+                    } catch (IllegalArgumentException e) {
+                        rejected++;
+                        if (errors.size() < MAX_REPORTED_ERRORS) {
+                            errors.add("row " + rows.rowNumber() + ": " + e.getMessage());
+                        }
+                        continue;
+                    }
+
+                    if (nextId > lastId) {
+                        lastId = reserveIds(batchSize);
+                        nextId = lastId - batchSize + 1;
+                    }
+                    LocalDateTime createdDate = task.getCreatedDate() != null ? task.getCreatedDate() : now;
+                    insert.setLong(1, nextId++);
+                    insert.setString(2, task.getName());
+                    insert.setString(3, task.getDescription());
+                    insert.setString(4, task.getStatus().name());
+                    insert.setTimestamp(5, Timestamp.valueOf(createdDate));
+                    insert.setTimestamp(6, task.getLastModifiedDate() == null ? null : Timestamp.valueOf(task.getLastModifiedDate()));
+                    insert.setLong(7, 1L);
+                    insert.addBatch();
+                    uncommittedByStatus.merge(task.getStatus(), 1, Integer::sum);
+                    batched++;
+
+                    if (batched == batchSize) {
+                        insert.executeBatch();
+                        uncommitted += batched;
+                        batched = 0;
+                    }
+                    if (uncommitted >= commitInterval) {
+                        conn.commit();
+                        imported += uncommitted;
+                        uncommitted = 0;
+                        taskCache.invalidate(List.of(), uncommittedByStatus.keySet());
+                        taskCache.invalidateMissing();
+                        uncommittedByStatus.forEach((status, count) -> importedByStatus.merge(status, count, Integer::sum));
+                        uncommittedByStatus.clear();
+                        logProgress(imported, rejected, start);
+                    }
+                }
+                if (batched > 0) {
+                    insert.executeBatch();
+                    uncommitted += batched;
+                }
+                conn.commit();
+                imported += uncommitted;
+                uncommittedByStatus.forEach((status, count) -> importedByStatus.merge(status, count, Integer::sum));
+            } catch (SQLException | RuntimeException e) {
+                // the connection is not closed, or pooled again, with a pending transaction
+                rollback(conn, e);
+                throw e;
+            }
+        } catch (SQLException | UncheckedIOException e) {
+            LOGGER.log(Level.SEVERE, "import failed after " + imported + " tasks", e);
+            errors.add("import stopped after " + imported + " tasks: " + e.getMessage());
+        } finally {
+            taskCache.invalidate(List.of(), EnumSet.allOf(Status.class));
+            taskCache.invalidateMissing();
+            // the batches committed before a failure are announced too
+            importedByStatus.forEach((status, count) -> taskChangedEvent.fire(TaskChangedEvent.imported(status, count)));
+        }
+
+        long millis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        LOGGER.log(Level.INFO, "imported {0} tasks, rejected {1} rows in {2} ms", new Object[]{imported, rejected, millis});
+        return new ImportResult(imported, rejected, List.copyOf(errors), millis);
+    }
+
+    /**
+     * Reserves a block of ids in its own transaction, the same way the persistence provider allocates them.
+     *
+     * @return the last id of the block.
+     */
+    private long reserveIds(int size) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement reserve = conn.prepareStatement(RESERVE_IDS)) {
+                reserve.setInt(1, size);
+                reserve.setString(2, Task.ID_GENERATOR);
+                if (reserve.executeUpdate() == 0) {
+                    try (PreparedStatement init = conn.prepareStatement(INSERT_IDS)) {
+                        init.setString(1, Task.ID_GENERATOR);
+                        init.setLong(2, size);
+                        init.executeUpdate();
+                    }
+                }
+            }
+            long last;
+            try (PreparedStatement select = conn.prepareStatement(SELECT_IDS)) {
+                select.setString(1, Task.ID_GENERATOR);
+                try (ResultSet rs = select.executeQuery()) {
+                    rs.next();
+                    last = rs.getLong(1);
+                }
+            }
+            conn.commit();
+            return last;
+        }
+    }
+
+    /**
+     * Rejects a value too long for its column here, in the database it would fail the whole batch.
+     */
+    private static void checkLengths(Task task) {
+        if (task.getName() != null && task.getName().length() > Task.NAME_LENGTH) {
+            throw new IllegalArgumentException("name is longer than " + Task.NAME_LENGTH + " characters");
+        }
+        if (task.getDescription() != null && task.getDescription().length() > Task.DESCRIPTION_LENGTH) {
+            throw new IllegalArgumentException("description is longer than " + Task.DESCRIPTION_LENGTH + " characters");
+        }
+    }
+
+    private static void rollback(Connection conn, Exception cause) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static void logProgress(long imported, long rejected, long start) {
+        double seconds = Math.max(1e-3, (System.nanoTime() - start) / 1e9);
+        LOGGER.log(Level.INFO, "import progress: {0} tasks committed, {1} rows rejected, {2} tasks/s",
+                new Object[]{imported, rejected, Math.round(imported / seconds)});
+    }
+
+    /**
+     * The tasks of the input, {@link #next()} throws an {@link IllegalArgumentException} for an invalid row.
+     */
+    private interface Rows extends Iterator<Task> {
+        default long rowNumber() {
+            return -1;
+        }
+    }
+
+    private static Task toTask(String name, String description, String status) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (description == null || description.isBlank()) {
+            throw new IllegalArgumentException("description is required");
+        }
+        Task task = Task.of(name.strip(), description.strip());
+        if (status != null && !status.isBlank()) {
+            try {
+                task.setStatus(Status.valueOf(status.strip().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown status " + status);
+            }
+        }
+        return task;
+    }
+
+    private static class JsonRows implements Rows {
+        private final BufferedReader reader;
+        private String line;
+        private long rowNumber;
+
+        JsonRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (line == null) {
+                    String read = reader.readLine();
+                    if (read == null) {
+                        return false;
+                    }
+                    rowNumber++;
+                    if (!read.isBlank()) {
+                        line = read;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String json = line;
+            line = null;
+            try (JsonReader jsonReader = Json.createReader(new StringReader(json))) {
+                JsonObject object = jsonReader.readObject();
+                return toTask(object.getString("name", null),
+                        object.getString("description", null),
+                        object.getString("status", null));
+            } catch (JsonException | ClassCastException e) {
+                throw new IllegalArgumentException("invalid JSON: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public long rowNumber() {
+            return rowNumber;
+        }
+    }
+
+    /**
+     * RFC 4180 records: fields may be double-quoted, a quoted field may contain commas, line breaks and
+     * doubled quotes. The columns are located by the names of the header line.
+     */
+    private static class CsvRows implements Rows {
+        private final BufferedReader reader;
+        private final int nameColumn;
+        private final int descriptionColumn;
+        private final int statusColumn;
+        private List<String> record;
+        private long rowNumber;
+
+        CsvRows(BufferedReader reader) {
+            this.reader = reader;
+            List<String> header = read();
+            if (header == null) {
+                header = List.of();
+            }
+            List<String> columns = header.stream().map(c -> c.strip().toLowerCase()).toList();
+            this.nameColumn = columns.indexOf("name");
+            this.descriptionColumn = columns.indexOf("description");
+            this.statusColumn = columns.indexOf("status");
+            if (nameColumn < 0 || descriptionColumn < 0) {
+                throw new IllegalArgumentException("the CSV header must name the name and description columns");
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (record == null) {
+                List<String> read = read();
+                if (read == null) {
+                    return false;
+                }
+                if (!(read.size() == 1 && read.getFirst().isBlank())) {
+                    record = read;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<String> fields = record;
+            record = null;
+            return toTask(field(fields, nameColumn), field(fields, descriptionColumn), field(fields, statusColumn));
+        }
+
+        @Override
+        public long rowNumber() {
+            return rowNumber;
+        }
+
+        private static String field(List<String> fields, int column) {
+            return column >= 0 && column < fields.size() ? fields.get(column) : null;
+        }
+
+        private List<String> read() {
+            try {
+                int c = reader.read();
+                if (c == -1) {
+                    return null;
+                }
+                rowNumber++;
+                List<String> fields = new ArrayList<>();
+                StringBuilder field = new StringBuilder();
+                boolean quoted = false;
+                while (c != -1) {
+                    if (quoted) {
+                        if (c == '"') {
+                            reader.mark(1);
+                            if (reader.read() == '"') {
+                                field.append('"');
+                            } else {
+                                reader.reset();
+                                quoted = false;
+                            }
+                        } else {
+                            field.append((char) c);
+                        }
+                    } else if (c == '"' && field.isEmpty()) {
+                        quoted = true;
+                    } else if (c == ',') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    } else if (c == '\n') {
+                        break;
+                    } else if (c != '\r') {
+                        field.append((char) c);
+                    }
+                    c = reader.read();
+                }
+                fields.add(field.toString());
+                return fields;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -1,9 +1,21 @@
 package com.example.domain;
 
+/**
+ * A task id that does not exist, eg. from a stale link or a crawler.
+ * <p>
+ * Expected and frequent, the exception does not capture its stack trace, the id tells all.
+ */
 public class TaskNotFoundException extends RuntimeException {
 
-	public TaskNotFoundException(Long postId) {
-		super(String.format("post id:%s not found!", postId));
+	private final Long taskId;
+
+	public TaskNotFoundException(Long taskId) {
+		super(String.format("task id:%s not found!", taskId), null, false, false);
+		this.taskId = taskId;
+	}
+
+	public Long getTaskId() {
+		return taskId;
 	}
 
 }
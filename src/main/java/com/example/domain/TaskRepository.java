@@ -1,42 +1,148 @@
 package com.example.domain;
 
+import com.example.metrics.Monitored;
+import jakarta.annotation.Resource;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Root;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.transaction.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
+ * Tasks read by id and board column pages are cached by {@link TaskCache}, every write has to go
+ * through this repository to invalidate them. Writes fire a {@link TaskChangedEvent} in their transaction.
+ * <p>
+ * The calls are timed, see {@link Monitored}.
  *
  * @author hantsy
  */
 @ApplicationScoped
 @Transactional
+@Monitored
 public class TaskRepository {
 
     @Inject
     EntityManager em;
 
-    public Task findById(Long id) {
-        Task task = em.find(Task.class, id);
-        if (task == null) {
-            throw new TaskNotFoundException(id);
-        }
+    @Inject
+    TaskCache taskCache;
 
-        return task;
+    @Resource
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    Event<TaskChangedEvent> taskChangedEvent;
+
+    public Task findById(Long id) {
+        return findOptionalById(id)
+                .orElseThrow(() -> new TaskNotFoundException(id));
     }
 
     public Optional<Task> findOptionalById(Long id) {
+        Task cached = taskCache.getTask(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (taskCache.isMissing(id)) {
+            return Optional.empty();
+        }
+
+        long generation = taskCache.generation();
         Task task = em.find(Task.class, id);
+        if (task != null) {
+            taskCache.putTask(task, generation);
+        } else {
+            taskCache.putMissing(id, generation);
+        }
         return Optional.ofNullable(task);
     }
 
+    /**
+     * Reads the given tasks, bypassing the cache. Missing tasks are left out.
+     */
+    public List<Task> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = this.em.getCriteriaBuilder();
+
+        CriteriaQuery<Task> q = cb.createQuery(Task.class);
+        Root<Task> c = q.from(Task.class);
+        q.where(c.get(Task_.id).in(ids));
+
+        return em.createQuery(q).getResultList();
+    }
+
+    public long count() {
+        CriteriaBuilder cb = this.em.getCriteriaBuilder();
+
+        CriteriaQuery<Long> q = cb.createQuery(Long.class);
+        q.select(cb.count(q.from(Task.class)));
+
+        return em.createQuery(q).getSingleResult();
+    }
+
+    /**
+     * Counts the tasks of every status with a single grouped query.
+     *
+     * @return a map containing an entry (possibly zero) for every status.
+     */
+    public Map<Status, Long> countByStatus() {
+        CriteriaBuilder cb = this.em.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> q = cb.createTupleQuery();
+        Root<Task> c = q.from(Task.class);
+        q.select(cb.tuple(c.get(Task_.status), cb.count(c)))
+                .groupBy(c.get(Task_.status));
+
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            counts.put(status, 0L);
+        }
+        em.createQuery(q)
+                .getResultList()
+                .forEach(row -> counts.put(row.get(0, Status.class), row.get(1, Long.class)));
+
+        return counts;
+    }
+
+    /**
+     * The tasks done since a date, the last modification of a done task being its completion.
+     */
+    public List<TaskStatistics.Completion> findCompletionsSince(LocalDateTime since) {
+        CriteriaBuilder cb = this.em.getCriteriaBuilder();
+
+        CriteriaQuery<TaskStatistics.Completion> q = cb.createQuery(TaskStatistics.Completion.class);
+        Root<Task> c = q.from(Task.class);
+        q.select(cb.construct(TaskStatistics.Completion.class,
+                        c.get(Task_.id),
+                        c.get(Task_.createdDate),
+                        c.get(Task_.lastModifiedDate)))
+                .where(cb.equal(c.get(Task_.status), Status.DONE),
+                        cb.greaterThanOrEqualTo(c.get(Task_.lastModifiedDate), since));
+
+        return em.createQuery(q).getResultList();
+    }
+
     public List<Task> findByStatus(Status status) {
         CriteriaBuilder cb = this.em.getCriteriaBuilder();
 
@@ -52,24 +158,264 @@ public class TaskRepository {
         return query.getResultList();
     }
 
+    /**
+     * Keyset pagination over the tasks of a status, ordered by id.
+     *
+     * @param status the status of the tasks.
+     * @param after  the id of the last task of the previous page, or {@code null} for the first page.
+     * @param size   the maximum number of tasks to return.
+     * @return the tasks following {@code after}.
+     */
+    public List<Task> findByStatus(Status status, Long after, int size) {
+        CriteriaBuilder cb = this.em.getCriteriaBuilder();
+
+        CriteriaQuery<Task> q = cb.createQuery(Task.class);
+        Root<Task> c = q.from(Task.class);
+
+        if (null == after) {
+            q.where(cb.equal(c.get(Task_.status), status));
+        } else {
+            q.where(cb.equal(c.get(Task_.status), status), cb.gt(c.get(Task_.id), after));
+        }
+        q.orderBy(cb.asc(c.get(Task_.id)));
+
+        return em.createQuery(q)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    /**
+     * Keyset pagination over the card projections of a status, ordered by id.
+     *
+     * @param status the status of the tasks.
+     * @param after  the id of the last task of the previous page, or {@code null} for the first page.
+     * @param size   the maximum number of tasks to return.
+     * @return the summaries of the tasks following {@code after}.
+     */
+    public List<TaskSummary> findSummariesByStatus(Status status, Long after, int size) {
+        List<TaskSummary> cached = taskCache.getPage(status, after, size);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = taskCache.generation();
+        CriteriaBuilder cb = this.em.getCriteriaBuilder();
+
+        CriteriaQuery<TaskSummary> q = cb.createQuery(TaskSummary.class);
+        Root<Task> c = q.from(Task.class);
+
+        Expression<String> description = c.get(Task_.description);
+        Expression<Integer> descriptionLength = cb.length(description);
+        q.select(cb.construct(TaskSummary.class,
+                c.get(Task_.id),
+                c.get(Task_.name),
+                // SUBSTRING fails on some databases when the length exceeds the string
+                cb.<String>selectCase()
+                        .when(cb.gt(descriptionLength, TaskSummary.PREVIEW_LENGTH),
+                                cb.substring(description, 1, TaskSummary.PREVIEW_LENGTH))
+                        .otherwise(description),
+                descriptionLength,
+                c.get(Task_.status),
+                c.get(Task_.createdDate),
+                c.get(Task_.lastModifiedDate),
+                c.get(Task_.version)));
+
+        if (null == after) {
+            q.where(cb.equal(c.get(Task_.status), status));
+        } else {
+            q.where(cb.equal(c.get(Task_.status), status), cb.gt(c.get(Task_.id), after));
+        }
+        q.orderBy(cb.asc(c.get(Task_.id)));
+
+        List<TaskSummary> page = em.createQuery(q)
+                .setMaxResults(size)
+                .getResultList();
+        taskCache.putPage(status, after, size, page, generation);
+        return page;
+    }
+
+    /**
+     * Loads the card projections of the first page of every board column, each page bounded by {@code size}.
+     *
+     * @param size the maximum number of tasks per status.
+     * @return a map containing an entry (possibly an empty list) for every status.
+     */
+    public Map<Status, List<TaskSummary>> findFirstPageGroupedByStatus(int size) {
+        Map<Status, List<TaskSummary>> grouped = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            grouped.put(status, findSummariesByStatus(status, null, size));
+        }
+
+        return grouped;
+    }
+
     public Task save(Task task) {
         em.persist(task);
+        // the generated id may have been looked up as missing
+        invalidate(List.of(task.getId()), EnumSet.of(task.getStatus()));
+        taskChangedEvent.fire(TaskChangedEvent.created(task));
 
         return task;
     }
 
     public Task update(Task task) {
-        return em.merge(task);
+        // merge loads the current state anyway, read it first to know the previous status
+        Task existing = em.find(Task.class, task.getId());
+        if (existing == null) {
+            // deleted meanwhile, a merge would insert it again
+            throw new TaskNotFoundException(task.getId());
+        }
+
+        Status previous = existing.getStatus();
+        invalidate(List.of(task.getId()), EnumSet.of(previous, task.getStatus()));
+        Task merged = em.merge(task);
+        taskChangedEvent.fire(TaskChangedEvent.updated(merged, previous));
+        return merged;
     }
 
     public void delete(Task task) {
         task = em.merge(task);
         em.remove(task);
+        invalidate(List.of(task.getId()), EnumSet.of(task.getStatus()));
+        taskChangedEvent.fire(TaskChangedEvent.deleted(List.of(task.getId()), task.getStatus(), 1));
+    }
+
+    /**
+     * Moves the given tasks from one status to another with a single set-based statement.
+     * Tasks not in the {@code from} status any more are left untouched.
+     *
+     * @param ids  the ids of the tasks to move.
+     * @param from the expected current status.
+     * @param to   the new status.
+     * @return the number of moved tasks.
+     */
+    public int updateStatus(Collection<Long> ids, Status from, Status to) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = this.em.getCriteriaBuilder();
+
+        CriteriaUpdate<Task> q = cb.createCriteriaUpdate(Task.class);
+        Root<Task> c = q.from(Task.class);
+        // bulk updates bypass the entity lifecycle callbacks and the version check
+        q.set(c.get(Task_.status), to)
+                .set(c.get(Task_.lastModifiedDate), LocalDateTime.now())
+                .set(c.get(Task_.version), cb.sum(c.get(Task_.version), 1L))
+                .where(c.get(Task_.id).in(ids), cb.equal(c.get(Task_.status), from));
+
+        invalidate(ids, EnumSet.of(from, to));
+        int moved = em.createQuery(q).executeUpdate();
+        if (moved > 0) {
+            taskChangedEvent.fire(TaskChangedEvent.moved(ids, from, to, moved));
+        }
+        return moved;
+    }
+
+    /**
+     * Moves a task to another status with a single statement, only if it is still in the expected
+     * status and version, eg. no one else changed it since it was read.
+     *
+     * @param id      the id of the task.
+     * @param version the version of the task when it was read.
+     * @param from    the expected current status.
+     * @param to      the new status.
+     * @return {@code true} if the task was moved, {@code false} if it was changed or deleted meanwhile.
+     */
+    public boolean transition(Long id, Long version, Status from, Status to) {
+        CriteriaBuilder cb = this.em.getCriteriaBuilder();
+
+        CriteriaUpdate<Task> q = cb.createCriteriaUpdate(Task.class);
+        Root<Task> c = q.from(Task.class);
+        q.set(c.get(Task_.status), to)
+                .set(c.get(Task_.lastModifiedDate), LocalDateTime.now())
+                .set(c.get(Task_.version), cb.sum(c.get(Task_.version), 1L))
+                .where(cb.equal(c.get(Task_.id), id),
+                        cb.equal(c.get(Task_.version), version),
+                        cb.equal(c.get(Task_.status), from));
+
+        invalidate(List.of(id), EnumSet.of(from, to));
+        if (em.createQuery(q).executeUpdate() == 0) {
+            return false;
+        }
+        taskChangedEvent.fire(TaskChangedEvent.moved(List.of(id), from, to, 1));
+        return true;
+    }
+
+    /**
+     * Deletes a task with a single statement, only if it is still in the expected version, eg. no one else changed
+     * it since it was read.
+     *
+     * @param id      the id of the task.
+     * @param version the version of the task when it was read.
+     * @param status  the status of the task when it was read.
+     * @return {@code true} if the task was deleted, {@code false} if it was changed or deleted meanwhile.
+     */
+    public boolean deleteIfUnchanged(Long id, Long version, Status status) {
+        CriteriaBuilder cb = this.em.getCriteriaBuilder();
+
+        CriteriaDelete<Task> q = cb.createCriteriaDelete(Task.class);
+        Root<Task> c = q.from(Task.class);
+        q.where(cb.equal(c.get(Task_.id), id), cb.equal(c.get(Task_.version), version));
+
+        invalidate(List.of(id), EnumSet.of(status));
+        if (em.createQuery(q).executeUpdate() == 0) {
+            return false;
+        }
+        taskChangedEvent.fire(TaskChangedEvent.deleted(List.of(id), status, 1));
+        return true;
+    }
+
+    /**
+     * Deletes the given tasks of a status with a single set-based statement.
+     *
+     * @param ids    the ids of the tasks to delete.
+     * @param status the expected current status.
+     * @return the number of deleted tasks.
+     */
+    public int deleteAll(Collection<Long> ids, Status status) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = this.em.getCriteriaBuilder();
+
+        CriteriaDelete<Task> q = cb.createCriteriaDelete(Task.class);
+        Root<Task> c = q.from(Task.class);
+        q.where(c.get(Task_.id).in(ids), cb.equal(c.get(Task_.status), status));
+
+        invalidate(ids, EnumSet.of(status));
+        int deleted = em.createQuery(q).executeUpdate();
+        if (deleted > 0) {
+            taskChangedEvent.fire(TaskChangedEvent.deleted(ids, status, deleted));
+        }
+        return deleted;
     }
 
     public void deleteById(Long id) {
-        Task task = this.findById(id);
+        Task task = em.find(Task.class, id);
+        if (task == null) {
+            throw new TaskNotFoundException(id);
+        }
         em.remove(task);
+        invalidate(List.of(id), EnumSet.of(task.getStatus()));
+        taskChangedEvent.fire(TaskChangedEvent.deleted(List.of(id), task.getStatus(), 1));
+    }
+
+    /**
+     * Invalidates the cached tasks and column pages a write touches, now and again when the transaction
+     * completes, so a concurrent reader can not keep the rows read before the commit.
+     */
+    private void invalidate(Collection<Long> ids, Set<Status> statuses) {
+        taskCache.invalidate(ids, statuses);
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                taskCache.invalidate(ids, statuses);
+            }
+        });
     }
 
 }
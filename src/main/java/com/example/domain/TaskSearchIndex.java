@@ -0,0 +1,345 @@
+package com.example.domain;
+
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.Startup;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * An in-memory inverted index of the task names and descriptions.
+ * <p>
+ * A search matches the tasks containing all the words of the query, the last word being a prefix so the results
+ * follow the typing, and ranks them with BM25, a word of the name weighing {@value #NAME_BOOST} words of the
+ * description.
+ * <p>
+ * The index is built in the background at startup, then kept up to date by the {@link TaskChangedEvent}s of the
+ * committed writes: the changed tasks are read again and reindexed in the background, one batch at a time so a
+ * task is never overwritten by an older read. An import, whose events carry no ids, rebuilds the index.
+ *
+ * @author hantsy
+ */
+@ApplicationScoped
+public class TaskSearchIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(TaskSearchIndex.class.getName());
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int NAME_BOOST = 3;
+
+    /**
+     * Bounds the cost of a short prefix, eg. a single letter.
+     */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Resource
+    ManagedExecutorService executor;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Index index = new Index();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * An import during a rebuild, whose rows may have been missed.
+     */
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    /**
+     * The tasks changed while rebuilding, applied again to the rebuilt index.
+     */
+    private final Set<Long> changedWhileRebuilding = ConcurrentHashMap.newKeySet();
+
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    public record Hit(Long id, String name, Status status, double score) implements Serializable {
+    }
+
+    /**
+     * @param hits  the requested page of the hits, best first.
+     * @param total the number of matching tasks.
+     */
+    public record SearchResult(List<Hit> hits, int total) implements Serializable {
+    }
+
+    void init(@Observes Startup startup) {
+        rebuild();
+    }
+
+    void onTaskChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) TaskChangedEvent event) {
+        if (event.ids().isEmpty()) {
+            rebuild();
+            return;
+        }
+        if (rebuilding.get()) {
+            changedWhileRebuilding.addAll(event.ids());
+        }
+        scheduleRefresh(event.ids());
+    }
+
+    /**
+     * @param query  the words to search, the last one as a prefix.
+     * @param offset the number of hits to skip.
+     * @param size   the maximum number of hits to return.
+     */
+    public SearchResult search(String query, int offset, int size) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            Index current = index;
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < words.size(); i++) {
+                boolean prefix = i == words.size() - 1;
+                Map<Long, Double> wordScores = current.score(words.get(i), prefix);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    // all the words must match
+                    Map<Long, Double> both = new HashMap<>();
+                    Map<Long, Double> previous = scores;
+                    wordScores.forEach((id, score) -> {
+                        Double previousScore = previous.get(id);
+                        if (previousScore != null) {
+                            both.put(id, previousScore + score);
+                        }
+                    });
+                    scores = both;
+                }
+                if (scores.isEmpty()) {
+                    return new SearchResult(List.of(), 0);
+                }
+            }
+
+            List<Hit> hits = scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .skip(offset)
+                    .limit(size)
+                    .map(e -> {
+                        Document document = current.documents.get(e.getKey());
+                        return new Hit(e.getKey(), document.name(), document.status(), e.getValue());
+                    })
+                    .toList();
+            return new SearchResult(hits, scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void scheduleRefresh(Collection<Long> ids) {
+        pendingIds.addAll(ids);
+        if (refreshScheduled.compareAndSet(false, true)) {
+            executor.execute(this::refreshPending);
+        }
+    }
+
+    /**
+     * Reads the pending tasks again, the deleted ones are removed from the index.
+     */
+    private void refreshPending() {
+        try {
+            while (!pendingIds.isEmpty()) {
+                List<Long> ids = new ArrayList<>(pendingIds);
+                pendingIds.removeAll(ids);
+                List<Task> tasks = taskRepository.findAllById(ids);
+                lock.writeLock().lock();
+                try {
+                    ids.forEach(index::remove);
+                    tasks.forEach(index::add);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "failed to refresh the task search index", e);
+        } finally {
+            refreshScheduled.set(false);
+        }
+        // ids added after the last check
+        if (!pendingIds.isEmpty() && refreshScheduled.compareAndSet(false, true)) {
+            executor.execute(this::refreshPending);
+        }
+    }
+
+    private void rebuild() {
+        rebuildRequested.set(true);
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        rebuildRequested.set(false);
+        executor.execute(() -> {
+            try {
+                long start = System.nanoTime();
+                Index rebuilt = new Index();
+                for (Status status : Status.values()) {
+                    Long after = null;
+                    List<Task> page;
+                    do {
+                        page = taskRepository.findByStatus(status, after, REBUILD_BATCH_SIZE);
+                        page.forEach(rebuilt::add);
+                        after = page.isEmpty() ? after : page.getLast().getId();
+                    } while (page.size() == REBUILD_BATCH_SIZE);
+                }
+
+                lock.writeLock().lock();
+                try {
+                    index = rebuilt;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                rebuilding.set(false);
+
+                List<Long> changed = new ArrayList<>(changedWhileRebuilding);
+                changedWhileRebuilding.removeAll(changed);
+                if (!changed.isEmpty()) {
+                    scheduleRefresh(changed);
+                }
+                LOGGER.log(Level.INFO, "task search index built with {0} tasks in {1} ms",
+                        new Object[]{rebuilt.documents.size(), (System.nanoTime() - start) / 1_000_000});
+                if (rebuildRequested.get()) {
+                    rebuild();
+                }
+            } catch (RuntimeException e) {
+                rebuilding.set(false);
+                LOGGER.log(Level.SEVERE, "failed to build the task search index", e);
+            }
+        });
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * The indexed fields of a task, with the term frequencies to remove it from the postings.
+     */
+    private record Document(String name, Status status, int length, Map<String, Integer> frequencies) {
+    }
+
+    /**
+     * Not thread safe, guarded by the lock of the enclosing index.
+     */
+    private static class Index {
+
+        /**
+         * Sorted, to expand the prefixes.
+         */
+        private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+        private final Map<Long, Document> documents = new HashMap<>();
+
+        private long totalLength;
+
+        void add(Task task) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            tokenize(task.getName()).forEach(word -> frequencies.merge(word, NAME_BOOST, Integer::sum));
+            tokenize(task.getDescription()).forEach(word -> frequencies.merge(word, 1, Integer::sum));
+            int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+            remove(task.getId());
+            documents.put(task.getId(), new Document(task.getName(), task.getStatus(), length, frequencies));
+            frequencies.forEach((word, frequency) ->
+                    postings.computeIfAbsent(word, w -> new HashMap<>()).put(task.getId(), frequency));
+            totalLength += length;
+        }
+
+        void remove(Long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            document.frequencies().keySet().forEach(word -> {
+                Map<Long, Integer> posting = postings.get(word);
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(word);
+                }
+            });
+            totalLength -= document.length();
+        }
+
+        /**
+         * The BM25 scores of the documents containing the word, the best expansion of a prefix.
+         * A prefix is expanded to its first {@value #MAX_PREFIX_EXPANSIONS} words in alphabetical order.
+         */
+        Map<Long, Double> score(String word, boolean prefix) {
+            Map<Long, Double> scores = new HashMap<>();
+            Collection<String> expansions;
+            if (prefix) {
+                SortedMap<String, Map<Long, Integer>> matching = postings.subMap(word, word + Character.MAX_VALUE);
+                expansions = matching.keySet().stream().limit(MAX_PREFIX_EXPANSIONS).toList();
+            } else {
+                expansions = postings.containsKey(word) ? List.of(word) : List.of();
+            }
+
+            int n = documents.size();
+            double averageLength = n == 0 ? 1 : (double) totalLength / n;
+            for (String expansion : expansions) {
+                Map<Long, Integer> posting = postings.get(expansion);
+                double idf = Math.log(1 + (n - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((id, frequency) -> {
+                    double length = documents.get(id).length();
+                    double score = idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+                    scores.merge(id, score, Math::max);
+                });
+            }
+            return scores;
+        }
+    }
+}
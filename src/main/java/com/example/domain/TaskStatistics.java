@@ -0,0 +1,226 @@
+package com.example.domain;
+
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.Startup;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The number of tasks per status and the flow of the board, maintained from the {@link TaskChangedEvent}s instead of
+ * reading the tasks.
+ * <p>
+ * The counts are read with a grouped query at startup, then moved by the number of rows every committed write
+ * affected. They are counted again every {@code taskboard.statistics.recount-interval} minutes (default 10), to
+ * correct the writes committed while counting.
+ * <p>
+ * The flow is the number of tasks done per day and their cycle time, from their creation to their completion, over
+ * the last {@code taskboard.statistics.days} days (default 30). It is read at startup from the done tasks, then the
+ * tasks moved to {@link Status#DONE} are read again in the background to add their completion. The imported tasks are
+ * counted, not added to the flow.
+ *
+ * @author hantsy
+ */
+@ApplicationScoped
+public class TaskStatistics {
+
+    private static final Logger LOGGER = Logger.getLogger(TaskStatistics.class.getName());
+
+    private static final long RECOUNT_INTERVAL = Long.getLong("taskboard.statistics.recount-interval", 10);
+    private static final int DAYS = Integer.getInteger("taskboard.statistics.days", 30);
+
+    private static final double SECONDS_PER_HOUR = 3600d;
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Resource
+    ManagedScheduledExecutorService executor;
+
+    /**
+     * Guards the counts and the flow below.
+     */
+    private final Object lock = new Object();
+
+    private Map<Status, Long> counts;
+
+    private final TreeMap<LocalDate, DailyFlow> days = new TreeMap<>();
+
+    /**
+     * The completion dates already counted, to count a task listed by several events once.
+     */
+    private final Map<Long, LocalDateTime> completed = new HashMap<>();
+
+    /**
+     * A task done, as read from the database.
+     */
+    public record Completion(Long id, LocalDateTime createdDate, LocalDateTime completedDate) {
+    }
+
+    /**
+     * @param completed         the number of tasks done that day.
+     * @param averageCycleHours the average time from the creation to the completion of these tasks.
+     * @param maxCycleHours     the longest time from the creation to the completion of these tasks.
+     */
+    public record DayStats(LocalDate day, long completed, double averageCycleHours,
+                           double maxCycleHours) implements Serializable {
+    }
+
+    /**
+     * @param counts            the number of tasks per status.
+     * @param throughputPerDay  the average number of tasks done per day over the period.
+     * @param averageCycleHours the average cycle time over the period.
+     * @param days              the days of the period with tasks done, the latest first.
+     */
+    public record FlowStats(Map<Status, Long> counts, double throughputPerDay, double averageCycleHours,
+                            List<DayStats> days) implements Serializable {
+    }
+
+    void init(@Observes Startup startup) {
+        recount();
+        executor.scheduleWithFixedDelay(this::recount, RECOUNT_INTERVAL, RECOUNT_INTERVAL, TimeUnit.MINUTES);
+        executor.execute(() -> {
+            try {
+                long start = System.nanoTime();
+                List<Completion> completions = taskRepository.findCompletionsSince(firstDay().atStartOfDay());
+                synchronized (lock) {
+                    completions.forEach(this::addCompletion);
+                }
+                LOGGER.log(Level.INFO, "task flow read from {0} done tasks in {1} ms",
+                        new Object[]{completions.size(), (System.nanoTime() - start) / 1_000_000});
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "failed to read the task flow", e);
+            }
+        });
+    }
+
+    void onTaskChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) TaskChangedEvent event) {
+        synchronized (lock) {
+            if (counts != null) {
+                if (event.from() != null) {
+                    counts.merge(event.from(), (long) -event.affected(), Long::sum);
+                }
+                if (event.to() != null) {
+                    counts.merge(event.to(), (long) event.affected(), Long::sum);
+                }
+            }
+        }
+        if (event.to() == Status.DONE && event.from() != Status.DONE && !event.ids().isEmpty()) {
+            List<Long> ids = event.ids();
+            executor.execute(() -> addCompletions(ids));
+        }
+    }
+
+    /**
+     * The number of tasks of a status, {@code 0} until they are counted.
+     */
+    public long count(Status status) {
+        synchronized (lock) {
+            return counts == null ? 0 : Math.max(0, counts.get(status));
+        }
+    }
+
+    public FlowStats stats() {
+        synchronized (lock) {
+            Map<Status, Long> snapshot = new EnumMap<>(Status.class);
+            for (Status status : Status.values()) {
+                snapshot.put(status, count(status));
+            }
+
+            LocalDate firstDay = firstDay();
+            days.headMap(firstDay).clear();
+            completed.values().removeIf(date -> date.toLocalDate().isBefore(firstDay));
+
+            long total = 0;
+            double totalCycleSeconds = 0;
+            List<DayStats> dayStats = new ArrayList<>();
+            for (Map.Entry<LocalDate, DailyFlow> entry : days.descendingMap().entrySet()) {
+                DailyFlow flow = entry.getValue();
+                total += flow.completed;
+                totalCycleSeconds += flow.totalCycleSeconds;
+                dayStats.add(new DayStats(entry.getKey(), flow.completed,
+                        (double) flow.totalCycleSeconds / flow.completed / SECONDS_PER_HOUR,
+                        flow.maxCycleSeconds / SECONDS_PER_HOUR));
+            }
+            return new FlowStats(snapshot, (double) total / DAYS,
+                    total == 0 ? 0 : totalCycleSeconds / total / SECONDS_PER_HOUR, dayStats);
+        }
+    }
+
+    private void recount() {
+        try {
+            Map<Status, Long> recounted = taskRepository.countByStatus();
+            synchronized (lock) {
+                counts = recounted;
+            }
+            LOGGER.log(Level.FINE, "tasks counted: {0}", recounted);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "failed to count the tasks", e);
+        }
+    }
+
+    /**
+     * Reads the tasks moved to done, the ones not done any more or deleted meanwhile are left out.
+     */
+    private void addCompletions(Collection<Long> ids) {
+        try {
+            List<Task> tasks = taskRepository.findAllById(ids);
+            synchronized (lock) {
+                tasks.stream()
+                        .filter(task -> task.getStatus() == Status.DONE && task.getLastModifiedDate() != null)
+                        .forEach(task -> addCompletion(
+                                new Completion(task.getId(), task.getCreatedDate(), task.getLastModifiedDate())));
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "failed to read the tasks done", e);
+        }
+    }
+
+    /**
+     * Called with the lock held.
+     */
+    private void addCompletion(Completion completion) {
+        LocalDate day = completion.completedDate().toLocalDate();
+        if (day.isBefore(firstDay())
+                || completion.completedDate().equals(completed.put(completion.id(), completion.completedDate()))) {
+            return;
+        }
+        long cycleSeconds = completion.createdDate() == null
+                ? 0
+                : Math.max(0, Duration.between(completion.createdDate(), completion.completedDate()).toSeconds());
+        DailyFlow flow = days.computeIfAbsent(day, d -> new DailyFlow());
+        flow.completed++;
+        flow.totalCycleSeconds += cycleSeconds;
+        flow.maxCycleSeconds = Math.max(flow.maxCycleSeconds, cycleSeconds);
+    }
+
+    private static LocalDate firstDay() {
+        return LocalDate.now().minusDays(DAYS - 1);
+    }
+
+    /**
+     * Guarded by the lock of the enclosing statistics.
+     */
+    private static class DailyFlow {
+        long completed;
+        long totalCycleSeconds;
+        long maxCycleSeconds;
+    }
+}
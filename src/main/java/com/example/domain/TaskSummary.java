@@ -0,0 +1,34 @@
+package com.example.domain;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A read-only projection of {@link Task} holding only what a board card displays.
+ * <p>
+ * The description is a preview truncated on the database side to {@link #PREVIEW_LENGTH} characters.
+ *
+ * @author hantsy
+ */
+public record TaskSummary(
+        Long id,
+        String name,
+        String description,
+        boolean descriptionTruncated,
+        Status status,
+        LocalDateTime createdDate,
+        LocalDateTime lastModifiedDate,
+        Long version) implements Serializable {
+
+    public static final int PREVIEW_LENGTH = 120;
+
+    /**
+     * Used by the query constructor expression, {@code descriptionLength} is the length of the full description.
+     */
+    public TaskSummary(Long id, String name, String description, Integer descriptionLength,
+                       Status status, LocalDateTime createdDate, LocalDateTime lastModifiedDate, Long version) {
+        this(id, name, description, descriptionLength != null && descriptionLength > PREVIEW_LENGTH,
+                status, createdDate, lastModifiedDate, version);
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.example.domain;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Buffers the status transitions of the tasks and writes them behind, for bursts of moves on the board.
+ * <p>
+ * Enabled with the {@code taskboard.transitions.write-behind} system property. A transition is acknowledged at once
+ * and kept per task, the latest one wins: moving a card twice writes a single update, moving it back writes nothing.
+ * The buffer is flushed {@code taskboard.transitions.flush-delay} milliseconds (default 200) after the first buffered
+ * transition, at most {@code taskboard.transitions.max-batch} tasks (default 500) at a time, with a set-based update
+ * per pair of statuses. A full buffer ({@code taskboard.transitions.capacity}, default 10000) is flushed by the
+ * caller, and a clean shutdown flushes what is left.
+ * <p>
+ * Readers call {@link #flush()} first to read their own writes. A transition whose task was changed or deleted
+ * meanwhile is dropped, the boards are refreshed by the {@link TaskChangedEvent} of the other write anyway. A batch
+ * that fails to be written is put back into the buffer and retried.
+ *
+ * @author hantsy
+ */
+@ApplicationScoped
+public class TaskTransitionQueue {
+
+    private static final Logger LOGGER = Logger.getLogger(TaskTransitionQueue.class.getName());
+
+    private static final boolean ENABLED = Boolean.getBoolean("taskboard.transitions.write-behind");
+    private static final long FLUSH_DELAY = Long.getLong("taskboard.transitions.flush-delay", 200);
+    private static final int MAX_BATCH = Integer.getInteger("taskboard.transitions.max-batch", 500);
+    private static final int CAPACITY = Integer.getInteger("taskboard.transitions.capacity", 10_000);
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Resource
+    ManagedScheduledExecutorService executor;
+
+    /**
+     * The status before the first buffered transition and after the last one.
+     */
+    private record Transition(Status from, Status to) {
+    }
+
+    private final Map<Long, Transition> pending = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Buffers a transition of a task, merged with the buffered one of the same task.
+     */
+    public void enqueue(Long id, Status from, Status to) {
+        if (pending.size() >= CAPACITY) {
+            flush();
+        }
+        pending.compute(id, (key, buffered) -> {
+            Status original = buffered == null ? from : buffered.from();
+            return original == to ? null : new Transition(original, to);
+        });
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::scheduledFlush, FLUSH_DELAY, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes all the buffered transitions, returns when they are committed.
+     */
+    public void flush() {
+        if (!ENABLED && pending.isEmpty()) {
+            // write-behind is off, nothing is ever buffered and no flush is in progress
+            return;
+        }
+        // taken even with nothing pending, a batch taken by another flush may still be being written
+        flushLock.lock();
+        try {
+            while (!pending.isEmpty()) {
+                flushBatch();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void drain() {
+        LOGGER.log(Level.INFO, "draining {0} buffered transitions", pending.size());
+        flush();
+    }
+
+    private void scheduledFlush() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "failed to write the buffered transitions, retrying", e);
+            if (!pending.isEmpty() && flushScheduled.compareAndSet(false, true)) {
+                executor.schedule(this::scheduledFlush, FLUSH_DELAY, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Takes at most {@link #MAX_BATCH} transitions, grouped by statuses.
+     */
+    private void flushBatch() {
+        Map<Transition, List<Long>> batch = new HashMap<>();
+        int size = 0;
+        for (Iterator<Map.Entry<Long, Transition>> it = pending.entrySet().iterator(); it.hasNext() && size < MAX_BATCH; ) {
+            Map.Entry<Long, Transition> entry = it.next();
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.computeIfAbsent(entry.getValue(), t -> new ArrayList<>()).add(entry.getKey());
+                size++;
+            }
+        }
+
+        for (Iterator<Map.Entry<Transition, List<Long>>> it = batch.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Transition, List<Long>> group = it.next();
+            Transition transition = group.getKey();
+            List<Long> ids = group.getValue();
+            int moved;
+            try {
+                moved = taskRepository.updateStatus(ids, transition.from(), transition.to());
+            } catch (RuntimeException e) {
+                // the groups not written yet go back to the buffer, the failed one included
+                batch.forEach(this::requeue);
+                throw e;
+            }
+            it.remove();
+            if (moved < ids.size()) {
+                LOGGER.log(Level.INFO, "{0} of {1} buffered transitions {2} dropped, the tasks were changed meanwhile",
+                        new Object[]{ids.size() - moved, ids.size(), transition});
+            }
+        }
+        LOGGER.log(Level.FINE, "flushed {0} buffered transitions", size);
+    }
+
+    /**
+     * Puts back transitions taken from the buffer, merged with the ones buffered since for the same tasks.
+     */
+    private void requeue(Transition transition, List<Long> ids) {
+        for (Long id : ids) {
+            pending.merge(id, transition, (later, taken) ->
+                    taken.from() == later.to() ? null : new Transition(taken.from(), later.to()));
+        }
+    }
+}
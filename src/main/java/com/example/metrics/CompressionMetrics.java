@@ -0,0 +1,89 @@
+package com.example.metrics;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sizes and cost of the compressed Faces responses, see {@code CompressionFilter}. The sizes of the full pages, of
+ * the partial (ajax) responses and of the resources are kept apart, to compare them.
+ *
+ * @author hantsy
+ */
+@ApplicationScoped
+public class CompressionMetrics {
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private final LatencyHistogram cpuTime = new LatencyHistogram();
+
+    private final LatencyHistogram compressedSize = new LatencyHistogram();
+
+    private final LatencyHistogram[] sizes = new LatencyHistogram[Response.values().length];
+
+    private final LongAdder uncompressed = new LongAdder();
+
+    private final LongAdder uncompressedBytes = new LongAdder();
+
+    private final LongAdder bytesIn = new LongAdder();
+
+    private final LongAdder bytesOut = new LongAdder();
+
+    public enum Response {
+        PAGE, PARTIAL, RESOURCE
+    }
+
+    public CompressionMetrics() {
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * @param cpuNanos the CPU time of the thread spent compressing the response.
+     */
+    public void recordCompressed(Response response, long bytesIn, long bytesOut, long cpuNanos) {
+        sizes[response.ordinal()].record(bytesIn);
+        this.bytesIn.add(bytesIn);
+        this.bytesOut.add(bytesOut);
+        compressedSize.record(bytesOut);
+        cpuTime.record(cpuNanos);
+    }
+
+    /**
+     * A response sent as it is, below the threshold, not compressible or already encoded.
+     */
+    public void recordUncompressed(Response response, long bytes) {
+        sizes[response.ordinal()].record(bytes);
+        uncompressed.increment();
+        uncompressedBytes.add(bytes);
+    }
+
+    /**
+     * The CPU time in milliseconds and the saved bytes of the compressed responses, the sizes of the responses before
+     * the compression.
+     */
+    public CompressionStats stats() {
+        long in = bytesIn.sum();
+        long out = bytesOut.sum();
+        Map<Response, LatencyHistogram.Summary> sizeStats = new EnumMap<>(Response.class);
+        for (Response response : Response.values()) {
+            sizeStats.put(response, sizes[response.ordinal()].summary(1));
+        }
+        return new CompressionStats(cpuTime.count(), uncompressed.sum(), in, out, in - out,
+                in == 0 ? 0 : (double) out / in, cpuTime.summary(NANOS_PER_MILLI), compressedSize.summary(1),
+                uncompressedBytes.sum(), sizeStats);
+    }
+
+    /**
+     * @param ratio the compressed size over the original size of the compressed responses, the lower the better.
+     * @param sizes the sizes of the responses before the compression, per kind.
+     */
+    public record CompressionStats(long compressed, long uncompressed, long bytesIn, long bytesOut, long bytesSaved,
+                                   double ratio, LatencyHistogram.Summary cpuTime,
+                                   LatencyHistogram.Summary compressedSize, long uncompressedBytes,
+                                   Map<Response, LatencyHistogram.Summary> sizes) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.metrics;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.faces.event.PhaseId;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms of the Faces lifecycle, per phase and per view, in nanoseconds.
+ *
+ * @author hantsy
+ */
+@ApplicationScoped
+public class LifecycleMetrics {
+
+    /**
+     * Bounds the number of histograms when clients request arbitrary view ids.
+     */
+    private static final int MAX_VIEWS = 500;
+
+    private static final String OTHER_VIEWS = "(other)";
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private final LatencyHistogram[] phases = new LatencyHistogram[PhaseId.VALUES.size()];
+
+    private final Map<String, ViewHistograms> views = new ConcurrentHashMap<>();
+
+    public LifecycleMetrics() {
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+    }
+
+    public void recordPhase(PhaseId phaseId, long nanos) {
+        phases[phaseId.getOrdinal()].record(nanos);
+    }
+
+    public void recordView(String viewId, boolean partial, long nanos) {
+        ViewHistograms histograms = views.get(viewId);
+        if (histograms == null) {
+            String key = views.size() < MAX_VIEWS ? viewId : OTHER_VIEWS;
+            histograms = views.computeIfAbsent(key, k -> new ViewHistograms());
+        }
+        (partial ? histograms.partial : histograms.full).record(nanos);
+    }
+
+    /**
+     * The latencies in milliseconds, views are split between full page and partial (ajax) requests.
+     */
+    public LifecycleStats stats() {
+        Map<String, LatencyHistogram.Summary> phaseStats = new LinkedHashMap<>();
+        for (PhaseId phaseId : PhaseId.VALUES) {
+            if (phaseId != PhaseId.ANY_PHASE) {
+                phaseStats.put(phaseId.getName(), phases[phaseId.getOrdinal()].summary(NANOS_PER_MILLI));
+            }
+        }
+
+        long requests = 0;
+        Map<String, LatencyHistogram.Summary> viewStats = new TreeMap<>();
+        for (Map.Entry<String, ViewHistograms> entry : views.entrySet()) {
+            ViewHistograms histograms = entry.getValue();
+            requests += histograms.full.count() + histograms.partial.count();
+            if (histograms.full.count() > 0) {
+                viewStats.put(entry.getKey(), histograms.full.summary(NANOS_PER_MILLI));
+            }
+            if (histograms.partial.count() > 0) {
+                viewStats.put(entry.getKey() + " (partial)", histograms.partial.summary(NANOS_PER_MILLI));
+            }
+        }
+        return new LifecycleStats(requests, phaseStats, viewStats);
+    }
+
+    private static class ViewHistograms {
+        final LatencyHistogram full = new LatencyHistogram();
+        final LatencyHistogram partial = new LatencyHistogram();
+    }
+
+    public record LifecycleStats(long requests,
+                                 Map<String, LatencyHistogram.Summary> phases,
+                                 Map<String, LatencyHistogram.Summary> views) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.metrics;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Times the calls of the business methods of a bean into {@link RepositoryMetrics}, see {@link MonitoredInterceptor}.
+ *
+ * @author hantsy
+ */
+@Inherited
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Monitored {
+}
@@ -0,0 +1,103 @@
+package com.example.metrics;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Records the latency and the result size of the {@link Monitored} calls.
+ * <p>
+ * A call slower than the {@code taskboard.repository.slow-threshold} system property, in milliseconds (default 100),
+ * is logged with its arguments and the SQL statements it ran, see {@link SqlStatementRecorder}.
+ * <p>
+ * The result size is the number of elements of a collection, the number of tasks of a map of collections, the number
+ * of rows written by a bulk statement returning an {@code int}, {@code 0} or {@code 1} for an optional or another
+ * value.
+ * <p>
+ * Runs before the transaction interceptor, the commit of the writes is timed.
+ *
+ * @author hantsy
+ */
+@Monitored
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE)
+public class MonitoredInterceptor {
+
+    private static final Logger LOGGER = Logger.getLogger(MonitoredInterceptor.class.getName());
+
+    private static final long SLOW_THRESHOLD = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong("taskboard.repository.slow-threshold", 100));
+
+    /**
+     * Bounds the logged arguments, eg. a list of thousands of ids.
+     */
+    private static final int MAX_ARGUMENT_LENGTH = 200;
+
+    @Inject
+    RepositoryMetrics metrics;
+
+    @AroundInvoke
+    public Object monitor(InvocationContext context) throws Exception {
+        List<SqlStatementRecorder.Statement> enclosing = SqlStatementRecorder.start();
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = context.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            List<SqlStatementRecorder.Statement> statements = SqlStatementRecorder.stop(enclosing);
+            long rows = rowsOf(result);
+            boolean slow = nanos > SLOW_THRESHOLD;
+            metrics.record(context.getMethod(), nanos, rows, failed, slow);
+            if (slow) {
+                logSlowCall(context, nanos, rows, failed, statements);
+            }
+        }
+    }
+
+    private static void logSlowCall(InvocationContext context, long nanos, long rows, boolean failed,
+                                    List<SqlStatementRecorder.Statement> statements) {
+        String arguments = Arrays.stream(context.getParameters())
+                .map(MonitoredInterceptor::abbreviate)
+                .collect(Collectors.joining(", ", "(", ")"));
+        String sql = statements.stream()
+                .map(statement -> "\n  " + statement)
+                .collect(Collectors.joining());
+        LOGGER.log(Level.WARNING, "slow call {0}{1} took {2} ms, {3} rows{4}:{5}",
+                new Object[]{context.getMethod().getName(), arguments, nanos / 1_000_000, rows,
+                        failed ? ", failed" : "", sql});
+    }
+
+    private static String abbreviate(Object argument) {
+        String value = String.valueOf(argument);
+        return value.length() > MAX_ARGUMENT_LENGTH ? value.substring(0, MAX_ARGUMENT_LENGTH) + "…" : value;
+    }
+
+    static long rowsOf(Object result) {
+        return switch (result) {
+            case null -> 0;
+            case Collection<?> collection -> collection.size();
+            case Map<?, ?> map -> map.values().stream()
+                    .mapToLong(value -> value instanceof Collection<?> collection ? collection.size() : 1)
+                    .sum();
+            case Optional<?> optional -> optional.isPresent() ? 1 : 0;
+            case Integer written -> written;
+            default -> 1;
+        };
+    }
+}
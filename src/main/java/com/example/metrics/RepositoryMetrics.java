@@ -0,0 +1,71 @@
+package com.example.metrics;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Latency and result size histograms of the {@link Monitored} methods, per method.
+ *
+ * @author hantsy
+ */
+@ApplicationScoped
+public class RepositoryMetrics {
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private final Map<Method, MethodHistograms> methods = new ConcurrentHashMap<>();
+
+    /**
+     * @param rows the size of the result, see {@link MonitoredInterceptor}.
+     */
+    public void record(Method method, long nanos, long rows, boolean failed, boolean slow) {
+        MethodHistograms histograms = methods.get(method);
+        if (histograms == null) {
+            histograms = methods.computeIfAbsent(method, m -> new MethodHistograms());
+        }
+        histograms.latency.record(nanos);
+        histograms.rows.record(rows);
+        if (failed) {
+            histograms.failures.increment();
+        }
+        if (slow) {
+            histograms.slowCalls.increment();
+        }
+    }
+
+    /**
+     * The latencies in milliseconds and the result sizes, per method signature.
+     */
+    public Map<String, MethodStats> stats() {
+        Map<String, MethodStats> stats = new TreeMap<>();
+        methods.forEach((method, histograms) -> stats.put(signatureOf(method),
+                new MethodStats(histograms.latency.summary(NANOS_PER_MILLI), histograms.rows.summary(1),
+                        histograms.failures.sum(), histograms.slowCalls.sum())));
+        return stats;
+    }
+
+    static String signatureOf(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(", ", "(", ")"));
+    }
+
+    public record MethodStats(LatencyHistogram.Summary latency, LatencyHistogram.Summary rows,
+                              long failures, long slowCalls) {
+    }
+
+    private static class MethodHistograms {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram rows = new LatencyHistogram();
+        final LongAdder failures = new LongAdder();
+        final LongAdder slowCalls = new LongAdder();
+    }
+}
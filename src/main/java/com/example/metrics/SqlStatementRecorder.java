@@ -0,0 +1,76 @@
+package com.example.metrics;
+
+import org.eclipse.persistence.internal.databaseaccess.DatabaseCall;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL statements and their bound parameters run by EclipseLink during a {@link Monitored} call, for the
+ * slow call log. Registered with the {@code eclipselink.session-event-listener} property of the persistence unit.
+ * <p>
+ * Nothing is recorded outside of a monitored call, and the statements are only formatted when the call is slow.
+ *
+ * @author hantsy
+ */
+public class SqlStatementRecorder extends SessionEventAdapter {
+
+    /**
+     * Bounds the memory of a call running many statements.
+     */
+    static final int MAX_STATEMENTS = 20;
+
+    private static final ThreadLocal<List<Statement>> RECORDED = new ThreadLocal<>();
+
+    record Statement(String sql, List<?> parameters) {
+
+        @Override
+        public String toString() {
+            return parameters.isEmpty() ? sql : sql + " bind => " + parameters;
+        }
+    }
+
+    /**
+     * Starts recording the statements of the current thread.
+     *
+     * @return the statements recorded by an enclosing call, to restore them with {@link #stop(List)}.
+     */
+    static List<Statement> start() {
+        List<Statement> enclosing = RECORDED.get();
+        RECORDED.set(new ArrayList<>());
+        return enclosing;
+    }
+
+    /**
+     * @param enclosing the statements returned by {@link #start()}.
+     * @return the statements recorded since {@link #start()}.
+     */
+    static List<Statement> stop(List<Statement> enclosing) {
+        List<Statement> recorded = RECORDED.get();
+        if (enclosing == null) {
+            RECORDED.remove();
+        } else {
+            RECORDED.set(enclosing);
+            recorded.forEach(statement -> record(enclosing, statement));
+        }
+        return recorded;
+    }
+
+    @Override
+    public void postExecuteCall(SessionEvent event) {
+        List<Statement> recorded = RECORDED.get();
+        if (recorded != null && event.getCall() instanceof DatabaseCall call) {
+            List<?> parameters = call.getParameters();
+            record(recorded, new Statement(call.getSQLString(),
+                    parameters == null ? List.of() : new ArrayList<>(parameters)));
+        }
+    }
+
+    private static void record(List<Statement> recorded, Statement statement) {
+        if (recorded.size() < MAX_STATEMENTS) {
+            recorded.add(statement);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.rest;
+
+import com.example.domain.TaskChangeLog;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * The changes of the tasks since a sequence, to sync a copy of the board incrementally, see {@link TaskChangeLog}.
+ *
+ * @author hantsy
+ */
+@Path("changes")
+@RequestScoped
+@Produces(MediaType.APPLICATION_JSON)
+public class ChangeResource {
+
+    static final int DEFAULT_LIMIT = 500;
+
+    static final int MAX_LIMIT = 5000;
+
+    @Inject
+    TaskChangeLog taskChangeLog;
+
+    @GET
+    public TaskChangeLog.ChangeFeed changesSince(@QueryParam("since") @DefaultValue("0") long since,
+                                                 @QueryParam("limit") @DefaultValue("" + DEFAULT_LIMIT) int limit) {
+        return taskChangeLog.changesSince(since, Math.clamp(limit, 1, MAX_LIMIT));
+    }
+
+    /**
+     * The sequence to read the changes from after a full reload.
+     */
+    @GET
+    @Path("sequence")
+    public long currentSequence() {
+        return taskChangeLog.currentSequence();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.rest;
+
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.core.Application;
+
+/**
+ *
+ * @author hantsy
+ */
+@ApplicationPath("api")
+public class RestConfig extends Application {
+
+}
@@ -0,0 +1,84 @@
+package com.example.rest;
+
+import com.example.domain.ExpiringCache;
+import com.example.domain.TaskCache;
+import com.example.domain.TaskStatistics;
+import com.example.metrics.CompressionMetrics;
+import com.example.metrics.LifecycleMetrics;
+import com.example.metrics.RepositoryMetrics;
+import com.example.web.SessionFootprint;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runtime statistics of the application.
+ *
+ * @author hantsy
+ */
+@Path("stats")
+@RequestScoped
+@Produces(MediaType.APPLICATION_JSON)
+public class StatsResource {
+
+    @Inject
+    TaskCache taskCache;
+
+    @Inject
+    TaskStatistics taskStatistics;
+
+    @Inject
+    SessionFootprint sessionFootprint;
+
+    @Inject
+    LifecycleMetrics lifecycleMetrics;
+
+    @Inject
+    RepositoryMetrics repositoryMetrics;
+
+    @Inject
+    CompressionMetrics compressionMetrics;
+
+    @GET
+    @Path("cache")
+    public List<ExpiringCache.CacheStats> cache() {
+        return taskCache.stats();
+    }
+
+    @GET
+    @Path("compression")
+    public CompressionMetrics.CompressionStats compression() {
+        return compressionMetrics.stats();
+    }
+
+    @GET
+    @Path("flow")
+    public TaskStatistics.FlowStats flow() {
+        return taskStatistics.stats();
+    }
+
+    @GET
+    @Path("lifecycle")
+    public LifecycleMetrics.LifecycleStats lifecycle() {
+        return lifecycleMetrics.stats();
+    }
+
+    @GET
+    @Path("repository")
+    public Map<String, RepositoryMetrics.MethodStats> repository() {
+        return repositoryMetrics.stats();
+    }
+
+    @GET
+    @Path("sessions")
+    public SessionFootprint.SessionStats sessions() {
+        return sessionFootprint.measure();
+    }
+
+}
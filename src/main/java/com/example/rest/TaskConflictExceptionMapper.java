@@ -0,0 +1,26 @@
+package com.example.rest;
+
+import com.example.domain.TaskConflictException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.Map;
+
+/**
+ * A write raced with another one, the client should read the task again.
+ *
+ * @author hantsy
+ */
+@Provider
+public class TaskConflictExceptionMapper implements ExceptionMapper<TaskConflictException> {
+
+    @Override
+    public Response toResponse(TaskConflictException exception) {
+        return Response.status(Response.Status.CONFLICT)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(Map.of("message", exception.getMessage()))
+                .build();
+    }
+}
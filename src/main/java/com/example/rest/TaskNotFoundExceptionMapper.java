@@ -0,0 +1,25 @@
+package com.example.rest;
+
+import com.example.domain.TaskNotFoundException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.Map;
+
+/**
+ *
+ * @author hantsy
+ */
+@Provider
+public class TaskNotFoundExceptionMapper implements ExceptionMapper<TaskNotFoundException> {
+
+    @Override
+    public Response toResponse(TaskNotFoundException exception) {
+        return Response.status(Response.Status.NOT_FOUND)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(Map.of("message", exception.getMessage()))
+                .build();
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.rest;
+
+import com.example.domain.Status;
+import com.example.domain.Task;
+import com.example.domain.TaskConflictException;
+import com.example.domain.TaskImporter;
+import com.example.domain.TaskRepository;
+import com.example.domain.TaskSummary;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Tasks over HTTP, for the integrations.
+ * <p>
+ * A task carries a strong {@code ETag} changing with every write: {@code If-None-Match} on a read answers
+ * {@code 304 Not Modified} when nothing changed, {@code If-Match} on a write answers {@code 412 Precondition Failed}
+ * when someone else changed the task meanwhile. The pages of a status carry a weak {@code ETag} of their tasks.
+ *
+ * @author hantsy
+ */
+@Path("tasks")
+@RequestScoped
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class TaskResource {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    TaskImporter taskImporter;
+
+    @Context
+    Request request;
+
+    @Context
+    UriInfo uriInfo;
+
+    /**
+     * Keyset paging over the tasks of a status ordered by id, the {@code Link} header points to the next page.
+     */
+    @GET
+    public Response findByStatus(@QueryParam("status") Status status,
+                                 @QueryParam("after") Long after,
+                                 @QueryParam("size") @DefaultValue("" + DEFAULT_PAGE_SIZE) int size) {
+        if (status == null) {
+            throw new BadRequestException("status is required");
+        }
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+
+        List<TaskSummary> tasks = taskRepository.findSummariesByStatus(status, after, pageSize + 1);
+        boolean hasMore = tasks.size() > pageSize;
+        List<TaskSummary> page = hasMore ? tasks.subList(0, pageSize) : tasks;
+
+        EntityTag etag = new EntityTag(Integer.toHexString(page.stream()
+                .mapToInt(t -> Objects.hash(t.id(), t.version(), t.lastModifiedDate()))
+                .reduce(17, (hash, t) -> 31 * hash + t)), true);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+
+        Response.ResponseBuilder ok = Response.ok(List.copyOf(page)).tag(etag);
+        if (hasMore) {
+            ok.link(uriInfo.getRequestUriBuilder()
+                    .replaceQueryParam("after", page.getLast().id())
+                    .replaceQueryParam("size", pageSize)
+                    .build(), "next");
+        }
+        return ok.build();
+    }
+
+    @GET
+    @Path("{id}")
+    public Response findById(@PathParam("id") Long id) {
+        Task task = taskRepository.findById(id);
+        EntityTag etag = etagOf(task);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(task).tag(etag).build();
+    }
+
+    @POST
+    public Response create(@Valid @NotNull TaskForm form) {
+        Task task = taskRepository.save(Task.of(form.name(), form.description()));
+        return Response.created(uriInfo.getAbsolutePathBuilder().path(String.valueOf(task.getId())).build())
+                .entity(task)
+                .tag(etagOf(task))
+                .build();
+    }
+
+    @PUT
+    @Path("{id}")
+    public Response update(@PathParam("id") Long id, @Valid @NotNull TaskForm form) {
+        Task task = taskRepository.findById(id);
+        Response.ResponseBuilder preconditionFailed = request.evaluatePreconditions(etagOf(task));
+        if (preconditionFailed != null) {
+            return preconditionFailed.build();
+        }
+
+        // the version read above guards the write against a concurrent change
+        task.setName(form.name());
+        task.setDescription(form.description());
+        try {
+            task = taskRepository.update(task);
+        } catch (RuntimeException e) {
+            throw isConflict(e) ? new TaskConflictException(id) : e;
+        }
+        return Response.ok(task).tag(etagOf(task)).build();
+    }
+
+    /**
+     * Moves a task to another status with a single conditional update.
+     */
+    @PUT
+    @Path("{id}/status")
+    public Response transition(@PathParam("id") Long id, @Valid @NotNull StatusForm form) {
+        Task task = taskRepository.findById(id);
+        Response.ResponseBuilder preconditionFailed = request.evaluatePreconditions(etagOf(task));
+        if (preconditionFailed != null) {
+            return preconditionFailed.build();
+        }
+
+        if (task.getStatus() != form.status()) {
+            if (!taskRepository.transition(id, task.getVersion(), task.getStatus(), form.status())) {
+                throw new TaskConflictException(id);
+            }
+            task = taskRepository.findById(id);
+        }
+        return Response.ok(task).tag(etagOf(task)).build();
+    }
+
+    @DELETE
+    @Path("{id}")
+    public Response delete(@PathParam("id") Long id, @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
+        Task task = taskRepository.findById(id);
+        Response.ResponseBuilder preconditionFailed = request.evaluatePreconditions(etagOf(task));
+        if (preconditionFailed != null) {
+            return preconditionFailed.build();
+        }
+
+        // the version checked above guards the delete against a concurrent change
+        if (!taskRepository.deleteIfUnchanged(id, task.getVersion(), task.getStatus())) {
+            if (ifMatch != null) {
+                return Response.status(Response.Status.PRECONDITION_FAILED).build();
+            }
+            throw new TaskConflictException(id);
+        }
+        return Response.noContent().build();
+    }
+
+    /**
+     * Streams a CSV ({@code text/csv}) or JSON lines ({@code application/x-ndjson}) upload into the database,
+     * see {@link TaskImporter}.
+     */
+    @POST
+    @Path("import")
+    @Consumes({"text/csv", "application/x-ndjson", "application/jsonl"})
+    public TaskImporter.ImportResult importTasks(@HeaderParam(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                 InputStream body) {
+        TaskImporter.Format format = contentType.getSubtype().equals("csv")
+                ? TaskImporter.Format.CSV
+                : TaskImporter.Format.JSONL;
+        try {
+            return taskImporter.importTasks(body, format);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    /**
+     * See {@link Task#revisionTag(Task)}.
+     */
+    static EntityTag etagOf(Task task) {
+        return new EntityTag(Task.revisionTag(task));
+    }
+
+    private static boolean isConflict(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public record TaskForm(@NotBlank String name, @NotBlank String description) {
+    }
+
+    public record StatusForm(@NotNull Status status) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.web;
+
+import com.example.domain.Status;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The loaded part of a board column, and the keyset cursor to load the next page.
+ *
+ * @author hantsy
+ */
+public class BoardColumn implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Status status;
+
+    private final List<TaskDetails> tasks = new ArrayList<>();
+
+    private boolean hasMore;
+
+    public BoardColumn(Status status) {
+        this.status = status;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public List<TaskDetails> getTasks() {
+        return tasks;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    /**
+     * The id of the last loaded task, used as the {@code after} cursor of the next page.
+     */
+    public Long getCursor() {
+        return tasks.isEmpty() ? null : tasks.getLast().getId();
+    }
+
+    /**
+     * Replaces the loaded tasks with the first page.
+     *
+     * @param page     the fetched rows, at most {@code pageSize + 1}.
+     * @param pageSize the page size, the extra row only tells there is a next page.
+     */
+    public void reset(List<TaskDetails> page, int pageSize) {
+        tasks.clear();
+        append(page, pageSize);
+    }
+
+    /**
+     * Appends the next page to the loaded tasks.
+     *
+     * @param page     the fetched rows, at most {@code pageSize + 1}.
+     * @param pageSize the page size, the extra row only tells there is a next page.
+     */
+    public void append(List<TaskDetails> page, int pageSize) {
+        hasMore = page.size() > pageSize;
+        tasks.addAll(hasMore ? page.subList(0, pageSize) : page);
+    }
+
+    public Optional<TaskDetails> find(Long id) {
+        return tasks.stream().filter(t -> t.getId().equals(id)).findFirst();
+    }
+
+    public boolean contains(Long id) {
+        return find(id).isPresent();
+    }
+
+    /**
+     * Removes a loaded task.
+     *
+     * @return the removed task, or {@code null} if it is not loaded.
+     */
+    public TaskDetails remove(Long id) {
+        for (Iterator<TaskDetails> it = tasks.iterator(); it.hasNext(); ) {
+            TaskDetails task = it.next();
+            if (task.getId().equals(id)) {
+                it.remove();
+                return task;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Inserts a task in id order. A task beyond the loaded part of the column is skipped,
+     * it comes with the next page.
+     */
+    public void insert(TaskDetails task) {
+        Long cursor = getCursor();
+        if (hasMore && cursor != null && task.getId() > cursor) {
+            return;
+        }
+        int index = 0;
+        while (index < tasks.size() && tasks.get(index).getId() < task.getId()) {
+            index++;
+        }
+        tasks.add(index, task);
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.example.web;
+
+import com.example.domain.Status;
+import com.example.domain.TaskChangedEvent;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.faces.push.Push;
+import jakarta.faces.push.PushContext;
+import jakarta.inject.Inject;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tells the open boards which columns changed through the {@code board} websocket channel.
+ * <p>
+ * Changes are coalesced: the columns touched during the delay, {@code taskboard.push.delay} system property
+ * in milliseconds, default 500, are pushed once each, the message being the name of the {@link Status}.
+ *
+ * @author hantsy
+ */
+@ApplicationScoped
+public class BoardPushService {
+
+    private static final Logger LOGGER = Logger.getLogger(BoardPushService.class.getName());
+
+    private static final long DELAY = Long.getLong("taskboard.push.delay", 500);
+
+    @Inject
+    @Push(channel = "board")
+    PushContext board;
+
+    @Resource
+    ManagedScheduledExecutorService executor;
+
+    private final Set<Status> changedColumns = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    void onTaskChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) TaskChangedEvent event) {
+        changedColumns.addAll(event.statuses());
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::flush, DELAY, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        for (Status status : Status.values()) {
+            if (changedColumns.remove(status)) {
+                LOGGER.log(Level.FINE, "pushing changed column {0}", status);
+                board.send(status.name());
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.example.web;
 import com.example.domain.Task;
 import com.example.domain.TaskNotFoundException;
 import com.example.domain.TaskRepository;
+import com.example.domain.TaskTransitionQueue;
 
 import jakarta.faces.application.FacesMessage;
 import jakarta.faces.context.FacesContext;
@@ -36,6 +37,9 @@ public class EditTaskAction implements Serializable {
     @Inject
     private TaskRepository taskRepository;
 
+    @Inject
+    private TaskTransitionQueue transitionQueue;
+
     private Long taskId;
 
     private Task task;
@@ -62,6 +66,8 @@ public class EditTaskAction implements Serializable {
         if (taskId == null) {
             task = new Task();
         } else {
+            // the moves of the board may still be buffered
+            transitionQueue.flush();
             task= taskRepository.findOptionalById(taskId)
                     .orElseThrow(()-> new TaskNotFoundException(taskId));
         }
@@ -0,0 +1,37 @@
+package com.example.web;
+
+import com.example.domain.Status;
+import com.example.domain.TaskStatistics;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import java.io.Serializable;
+
+/**
+ * Backs the read-only statistics page, rendered as a stateless view from the maintained {@link TaskStatistics}.
+ *
+ * @author hantsy
+ */
+@Named("flowStats")
+@RequestScoped
+public class FlowStatsAction implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Inject
+    private TaskStatistics taskStatistics;
+
+    private TaskStatistics.FlowStats stats;
+
+    public TaskStatistics.FlowStats getStats() {
+        if (stats == null) {
+            stats = taskStatistics.stats();
+        }
+        return stats;
+    }
+
+    public long count(Status status) {
+        return getStats().counts().get(status);
+    }
+}
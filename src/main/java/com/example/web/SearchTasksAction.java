@@ -0,0 +1,82 @@
+package com.example.web;
+
+import com.example.domain.TaskSearchIndex;
+import jakarta.faces.view.ViewScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Backs the search box of the board, the hits are loaded by pages of {@value #PAGE_SIZE}.
+ *
+ * @author hantsy
+ */
+@Named("searchTasks")
+@ViewScoped
+public class SearchTasksAction implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = Logger.getLogger(SearchTasksAction.class.getName());
+
+    static final int PAGE_SIZE = 10;
+
+    @Inject
+    private TaskSearchIndex taskSearchIndex;
+
+    private String query;
+
+    private final List<TaskSearchIndex.Hit> hits = new ArrayList<>();
+
+    private int total;
+
+    private long elapsedMicros;
+
+    public void search() {
+        hits.clear();
+        total = 0;
+        load();
+    }
+
+    public void more() {
+        load();
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        TaskSearchIndex.SearchResult result = taskSearchIndex.search(query, hits.size(), PAGE_SIZE);
+        elapsedMicros = (System.nanoTime() - start) / 1000;
+        hits.addAll(result.hits());
+        total = result.total();
+        LOGGER.log(Level.FINE, "search of {0}: {1} hits in {2} µs", new Object[]{query, total, elapsedMicros});
+    }
+
+    public boolean isHasMore() {
+        return hits.size() < total;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public List<TaskSearchIndex.Hit> getHits() {
+        return hits;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedMicros / 1000d;
+    }
+}
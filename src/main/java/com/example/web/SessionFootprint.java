@@ -0,0 +1,95 @@
+package com.example.web;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures the memory held by the live HTTP sessions, approximated by the serialized size of their attributes.
+ * <p>
+ * With the default server side state saving, the session holds the view states and the view scoped beans of
+ * every stateful view a user opened. The measurement is taken on demand only, it serializes every session.
+ *
+ * @author hantsy
+ */
+@ApplicationScoped
+public class SessionFootprint {
+
+    private final Map<String, HttpSession> sessions = new ConcurrentHashMap<>();
+
+    void sessionCreated(HttpSession session) {
+        sessions.put(session.getId(), session);
+    }
+
+    void sessionDestroyed(HttpSession session) {
+        sessions.remove(session.getId());
+    }
+
+    public SessionStats measure() {
+        Map<String, Long> bytesByAttribute = new TreeMap<>();
+        long total = 0;
+        long max = 0;
+        int measured = 0;
+        for (HttpSession session : sessions.values()) {
+            long sessionBytes = 0;
+            try {
+                for (String name : Collections.list(session.getAttributeNames())) {
+                    long bytes = serializedSize(session.getAttribute(name));
+                    bytesByAttribute.merge(name, bytes, Long::sum);
+                    sessionBytes += bytes;
+                }
+            } catch (IllegalStateException e) {
+                // invalidated meanwhile
+                continue;
+            }
+            total += sessionBytes;
+            max = Math.max(max, sessionBytes);
+            measured++;
+        }
+        return new SessionStats(measured, total, measured == 0 ? 0 : total / measured, max, bytesByAttribute);
+    }
+
+    private static long serializedSize(Object value) {
+        CountingOutputStream counter = new CountingOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(counter)) {
+            out.writeObject(value);
+        } catch (IOException | RuntimeException e) {
+            // not serializable or modified meanwhile, not counted
+            return 0;
+        }
+        return counter.count;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    /**
+     * @param sessions         the number of live sessions.
+     * @param totalBytes       the serialized size of all sessions.
+     * @param averageBytes     the average serialized size per session.
+     * @param maxBytes         the serialized size of the largest session.
+     * @param bytesByAttribute the serialized size per session attribute name, summed over the sessions.
+     */
+    public record SessionStats(int sessions, long totalBytes, long averageBytes, long maxBytes,
+                               Map<String, Long> bytesByAttribute) {
+    }
+}
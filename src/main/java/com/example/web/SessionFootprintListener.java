@@ -0,0 +1,28 @@
+package com.example.web;
+
+import jakarta.inject.Inject;
+import jakarta.servlet.annotation.WebListener;
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+
+/**
+ * Tracks the live sessions for {@link SessionFootprint}.
+ *
+ * @author hantsy
+ */
+@WebListener
+public class SessionFootprintListener implements HttpSessionListener {
+
+    @Inject
+    SessionFootprint sessionFootprint;
+
+    @Override
+    public void sessionCreated(HttpSessionEvent se) {
+        sessionFootprint.sessionCreated(se.getSession());
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent se) {
+        sessionFootprint.sessionDestroyed(se.getSession());
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.web;
 
+import com.example.domain.TaskSummary;
+
 import java.io.Serializable;
 import java.time.LocalDateTime;
 
@@ -12,8 +14,10 @@ public class TaskDetails implements Serializable {
     private Long id;
     private String name;
     private String description;
+    private boolean descriptionTruncated;
     private LocalDateTime createdDate;
     private LocalDateTime lastModifiedDate;
+    private Long version;
 
     public Long getId() {
         return id;
@@ -39,6 +43,14 @@ public class TaskDetails implements Serializable {
         this.description = description;
     }
 
+    public boolean isDescriptionTruncated() {
+        return descriptionTruncated;
+    }
+
+    public void setDescriptionTruncated(boolean descriptionTruncated) {
+        this.descriptionTruncated = descriptionTruncated;
+    }
+
     public LocalDateTime getCreatedDate() {
         return createdDate;
     }
@@ -55,9 +67,29 @@ public class TaskDetails implements Serializable {
         this.lastModifiedDate = lastModifiedDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public static TaskDetails of(TaskSummary summary) {
+        TaskDetails details = new TaskDetails();
+        details.setId(summary.id());
+        details.setName(summary.name());
+        details.setDescription(summary.description());
+        details.setDescriptionTruncated(summary.descriptionTruncated());
+        details.setCreatedDate(summary.createdDate());
+        details.setLastModifiedDate(summary.lastModifiedDate());
+        details.setVersion(summary.version());
+        return details;
+    }
+
     @Override
     public String toString() {
-        return "TaskDetails{" + "id=" + id + ", name=" + name + ", description=" + description + ", createdDate=" + createdDate + ", lastModifiedDate=" + lastModifiedDate + '}';
+        return "TaskDetails{" + "id=" + id + ", name=" + name + ", description=" + description + ", createdDate=" + createdDate + ", lastModifiedDate=" + lastModifiedDate + ", version=" + version + '}';
     }
 
 }
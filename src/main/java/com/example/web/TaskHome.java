@@ -1,9 +1,11 @@
 package com.example.web;
 
 import com.example.domain.Status;
-import com.example.domain.Task;
-import com.example.domain.TaskNotFoundException;
+import com.example.domain.TaskConflictException;
 import com.example.domain.TaskRepository;
+import com.example.domain.TaskStatistics;
+import com.example.domain.TaskSummary;
+import com.example.domain.TaskTransitionQueue;
 import jakarta.faces.application.FacesMessage;
 import jakarta.faces.context.FacesContext;
 import jakarta.faces.view.ViewScoped;
@@ -11,10 +13,15 @@ import jakarta.inject.Inject;
 import jakarta.inject.Named;
 
 import java.io.Serializable;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  *
@@ -34,22 +41,48 @@ public class TaskHome implements Serializable {
     @Inject
     private TaskRepository taskRepository;
 
-    private List<TaskDetails> todotasks = new ArrayList<>();
+    @Inject
+    private TaskTransitionQueue transitionQueue;
+
+    @Inject
+    private TaskStatistics taskStatistics;
 
-    private List<TaskDetails> doingtasks = new ArrayList<>();
+    /**
+     * The number of tasks loaded into a column at once.
+     */
+    static final int PAGE_SIZE = 20;
 
-    private List<TaskDetails> donetasks = new ArrayList<>();
+    private final Map<Status, BoardColumn> columns = new EnumMap<>(Status.class);
+
+    private final Map<Long, Boolean> selected = new HashMap<>();
+
+    public TaskHome() {
+        for (Status status : Status.values()) {
+            columns.put(status, new BoardColumn(status));
+        }
+    }
 
     public List<TaskDetails> getTodotasks() {
-        return todotasks;
+        return columns.get(Status.TODO).getTasks();
     }
 
     public List<TaskDetails> getDoingtasks() {
-        return doingtasks;
+        return columns.get(Status.DOING).getTasks();
     }
 
     public List<TaskDetails> getDonetasks() {
-        return donetasks;
+        return columns.get(Status.DONE).getTasks();
+    }
+
+    public boolean hasMore(Status status) {
+        return columns.get(status).isHasMore();
+    }
+
+    /**
+     * The number of tasks of a column, loaded or not.
+     */
+    public long count(Status status) {
+        return taskStatistics.count(status);
     }
 
     public void init() {
@@ -57,42 +90,50 @@ public class TaskHome implements Serializable {
         retrieveAllTasks();
     }
 
-    private void retrieveAllTasks() {
-        LOGGER.log(Level.INFO, "retriveing all tasks...");
-        this.todotasks = findTasksByStatus(Status.TODO);
-        this.doingtasks = findTasksByStatus(Status.DOING);
-        this.donetasks = findTasksByStatus(Status.DONE);
+    public void loadMore(Status status) {
+        LOGGER.log(Level.INFO, "loading more tasks of status @{0}", status);
+        transitionQueue.flush();
+        BoardColumn column = columns.get(status);
+        List<TaskSummary> tasks = taskRepository.findSummariesByStatus(status, column.getCursor(), PAGE_SIZE + 1);
+        column.append(toTaskDetails(tasks), PAGE_SIZE);
     }
 
-    private List<TaskDetails> findTasksByStatus(Status status) {
-        List<TaskDetails> taskList = new ArrayList<>();
-        List<Task> tasks = taskRepository.findByStatus(status);
+    /**
+     * Reloads a column changed by someone else, keeping as many tasks as loaded.
+     */
+    public void refresh(Status status) {
+        LOGGER.log(Level.INFO, "refreshing tasks of status @{0}", status);
+        transitionQueue.flush();
+        BoardColumn column = columns.get(status);
+        int size = Math.max(PAGE_SIZE, column.getTasks().size());
+        List<TaskSummary> tasks = taskRepository.findSummariesByStatus(status, null, size + 1);
+        column.reset(toTaskDetails(tasks), size);
+    }
 
-        tasks.stream()
-                .map((task) -> {
-                    TaskDetails details = new TaskDetails();
-                    details.setId(task.getId());
-                    details.setName(task.getName());
-                    details.setDescription(task.getDescription());
-                    details.setCreatedDate(task.getCreatedDate());
-                    details.setLastModifiedDate(task.getLastModifiedDate());
-                    return details;
-                })
-                .forEach(taskList::add);
+    private void retrieveAllTasks() {
+        LOGGER.log(Level.INFO, "retriveing all tasks...");
+        // read the transitions still buffered
+        transitionQueue.flush();
+        Map<Status, List<TaskSummary>> tasks = taskRepository.findFirstPageGroupedByStatus(PAGE_SIZE + 1);
+        columns.forEach((status, column) -> column.reset(toTaskDetails(tasks.get(status)), PAGE_SIZE));
+    }
 
-        return taskList;
+    private List<TaskDetails> toTaskDetails(List<TaskSummary> tasks) {
+        return tasks.stream()
+                .map(TaskDetails::of)
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 
     public void deleteTask(Long id) {
 
         LOGGER.log(Level.INFO, "delete task of id@{0}", id);
 
-        Task task = taskRepository.findOptionalById(id)
-                .orElseThrow(() -> new TaskNotFoundException(id));
-        taskRepository.delete(task);
-
-        // retrieve all tasks
-        retrieveAllTasks();
+        Status status = statusOf(id);
+        transitionQueue.flush();
+        if (taskRepository.deleteAll(List.of(id), status) == 0) {
+            throw new TaskConflictException(id);
+        }
+        columns.get(status).remove(id);
 
         FacesMessage deleteInfo = new FacesMessage(FacesMessage.SEVERITY_WARN, "Task is deleted!", "Task is deleted!");
         facesContext.addMessage(null, deleteInfo);
@@ -100,28 +141,138 @@ public class TaskHome implements Serializable {
 
     public void markTaskDoing(Long id) {
         LOGGER.log(Level.INFO, "changing task DONG @{0}", id);
-
-        Task task = taskRepository.findOptionalById(id)
-                .orElseThrow(() -> new TaskNotFoundException(id));
-        task.setStatus(Status.DOING);
-        taskRepository.update(task);
-
-        // retrieve all tasks
-        retrieveAllTasks();
+        moveTask(id, Status.TODO, Status.DOING);
     }
 
     public void markTaskDone(Long id) {
         LOGGER.log(Level.INFO, "changing task DONE @{0}", id);
+        moveTask(id, Status.DOING, Status.DONE);
+    }
+
+    /**
+     * Moves a task with a conditional update on the version of the loaded card, then the card.
+     * In the write-behind mode the move is buffered by {@link TaskTransitionQueue} instead.
+     *
+     * @throws TaskConflictException if the task was changed or deleted since the card was loaded.
+     */
+    private void moveTask(Long id, Status from, Status to) {
+        BoardColumn source = columns.get(from);
+        // no longer in the loaded column, eg. moved away by a refresh racing the click
+        TaskDetails task = source.find(id)
+                .orElseThrow(() -> new TaskConflictException(id));
+        if (transitionQueue.isEnabled()) {
+            // acknowledged now, written behind
+            transitionQueue.enqueue(id, from, to);
+        } else if (!taskRepository.transition(id, task.getVersion(), from, to)) {
+            throw new TaskConflictException(id);
+        }
+
+        source.remove(id);
+        moved(task);
+        columns.get(to).insert(task);
+    }
+
+    /**
+     * Moves the tasks in the database, then the loaded cards between the columns.
+     *
+     * @return the number of moved tasks.
+     */
+    private int moveTasks(List<Long> ids, Status from, Status to) {
+        transitionQueue.flush();
+        int moved = taskRepository.updateStatus(ids, from, to);
+        if (moved != ids.size()) {
+            // some tasks were changed or deleted meanwhile
+            staleBoard();
+            return moved;
+        }
 
-        Task task = taskRepository.findOptionalById(id)
-                .orElseThrow(() -> new TaskNotFoundException(id));
-        task.setStatus(Status.DONE);
-        taskRepository.update(task);
+        BoardColumn source = columns.get(from);
+        BoardColumn target = columns.get(to);
+        ids.forEach(id -> {
+            TaskDetails task = source.remove(id);
+            if (task != null) {
+                moved(task);
+                target.insert(task);
+            }
+        });
+        return moved;
+    }
+
+    /**
+     * Mirrors on a card what the status update did to the row.
+     */
+    private void moved(TaskDetails task) {
+        task.setLastModifiedDate(LocalDateTime.now());
+        if (task.getVersion() != null) {
+            task.setVersion(task.getVersion() + 1);
+        }
+    }
+
+    /**
+     * The status of the column holding a loaded task.
+     *
+     * @throws TaskConflictException if the task is not on the loaded board any more, the board was changed meanwhile.
+     */
+    private Status statusOf(Long id) {
+        return columns.values().stream()
+                .filter(column -> column.contains(id))
+                .map(BoardColumn::getStatus)
+                .findFirst()
+                .orElseThrow(() -> new TaskConflictException(id));
+    }
 
-        // retrieve all tasks
+    /**
+     * The loaded copy of the board does not match the database any more, reload it.
+     */
+    private void staleBoard() {
+        LOGGER.log(Level.INFO, "the board is stale, reloading...");
         retrieveAllTasks();
+        facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_WARN,
+                "The board was changed meanwhile, it is refreshed.", null));
+    }
+
+    public Map<Long, Boolean> getSelected() {
+        return selected;
+    }
+
+    public void markSelectedDoing() {
+        int moved = moveTasks(selectedIds(Status.TODO), Status.TODO, Status.DOING);
+        LOGGER.log(Level.INFO, "changed {0} selected tasks DOING", moved);
+        afterBulkAction(moved + " task(s) started.");
+    }
 
+    public void markSelectedDone() {
+        int moved = moveTasks(selectedIds(Status.DOING), Status.DOING, Status.DONE);
+        LOGGER.log(Level.INFO, "changed {0} selected tasks DONE", moved);
+        afterBulkAction(moved + " task(s) completed.");
     }
 
+    public void deleteSelected() {
+        List<Long> ids = selectedIds(Status.DONE);
+        transitionQueue.flush();
+        int deleted = taskRepository.deleteAll(ids, Status.DONE);
+        LOGGER.log(Level.INFO, "deleted {0} selected tasks", deleted);
+        if (deleted == ids.size()) {
+            ids.forEach(columns.get(Status.DONE)::remove);
+        } else {
+            staleBoard();
+        }
+        afterBulkAction(deleted + " task(s) deleted.");
+    }
+
+    /**
+     * The checked tasks among the loaded tasks of a column.
+     */
+    private List<Long> selectedIds(Status status) {
+        return columns.get(status).getTasks().stream()
+                .map(TaskDetails::getId)
+                .filter(id -> Boolean.TRUE.equals(selected.get(id)))
+                .toList();
+    }
+
+    private void afterBulkAction(String message) {
+        selected.clear();
+        facesContext.addMessage(null, new FacesMessage(message));
+    }
 
 }
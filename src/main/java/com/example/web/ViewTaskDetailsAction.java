@@ -3,32 +3,60 @@ package com.example.web;
 import com.example.domain.Task;
 import com.example.domain.TaskNotFoundException;
 import com.example.domain.TaskRepository;
+import com.example.domain.TaskTransitionQueue;
 
-import jakarta.faces.view.ViewScoped;
+import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.validation.constraints.NotNull;
 import java.io.Serializable;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import jakarta.faces.context.ExternalContext;
 import jakarta.faces.context.FacesContext;
 
 /**
+ * Backs the read-only details page, which is rendered as a stateless view: nothing is kept between requests.
+ * <p>
+ * The page is cached by the browsers and revalidated on every view: the response carries the {@code ETag} and
+ * {@code Last-Modified} of the task and of the deployment, a request with a current copy is answered by
+ * {@code 304 Not Modified} without rendering.
  *
  * @author hantsy
  *
  */
 @Named("viewTaskAction")
-@ViewScoped()
+@RequestScoped
 public class ViewTaskDetailsAction implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     private static final Logger LOGGER = Logger.getLogger(ViewTaskDetailsAction.class.getName());
 
+    /**
+     * When this version of the application was deployed, a redeployment loads the class again.
+     */
+    private static final Instant DEPLOYED_AT = Instant.now();
+
+    private static final String DEPLOYMENT_ID = Long.toString(DEPLOYED_AT.toEpochMilli(), 36);
+
+    @Inject
+    FacesContext facesContext;
+
     @Inject
     private TaskRepository taskRepository;
 
+    @Inject
+    private TaskTransitionQueue transitionQueue;
+
     @NotNull
     private Long taskId;
 
@@ -38,9 +66,59 @@ public class ViewTaskDetailsAction implements Serializable {
 
         LOGGER.log(Level.INFO, "get task details of id @{0}", taskId);
 
+        // the moves of the board may still be buffered
+        transitionQueue.flush();
         task = taskRepository.findOptionalById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException(taskId));
 
+        ExternalContext externalContext = facesContext.getExternalContext();
+        Instant revision = Task.revisionInstant(task);
+        // a page rendered by a previous deployment, eg. with another layout, is stale too
+        ZonedDateTime lastModified = revision == null
+                ? null
+                : (revision.isAfter(DEPLOYED_AT) ? revision : DEPLOYED_AT).atZone(ZoneOffset.UTC);
+        // weak, the rendered page depends on more than the task, eg. the layout
+        String etag = "W/\"" + Task.revisionTag(task) + "-" + DEPLOYMENT_ID + "\"";
+        externalContext.setResponseHeader("ETag", etag);
+        externalContext.setResponseHeader("Cache-Control", "private, no-cache");
+        if (lastModified != null) {
+            lastModified = lastModified.truncatedTo(ChronoUnit.SECONDS);
+            externalContext.setResponseHeader("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(lastModified));
+        }
+
+        // messages kept in the flash are not in the client's copy
+        if (facesContext.getMessageList().isEmpty() && isNotModified(etag, lastModified)) {
+            LOGGER.log(Level.FINE, "task of id @{0} not modified", taskId);
+            externalContext.setResponseStatus(304);
+            facesContext.responseComplete();
+        }
+    }
+
+    /**
+     * {@code If-None-Match} takes precedence over {@code If-Modified-Since}, as in RFC 9110.
+     */
+    private boolean isNotModified(String etag, ZonedDateTime lastModified) {
+        Map<String, String> headers = facesContext.getExternalContext().getRequestHeaderMap();
+        String ifNoneMatch = headers.get("If-None-Match");
+        if (ifNoneMatch != null) {
+            return Arrays.stream(ifNoneMatch.split(","))
+                    .map(String::trim)
+                    .anyMatch(tag -> tag.equals("*") || weak(tag).equals(weak(etag)));
+        }
+
+        String ifModifiedSince = headers.get("If-Modified-Since");
+        if (ifModifiedSince != null && lastModified != null) {
+            try {
+                return !lastModified.isAfter(ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME));
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static String weak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
     }
 
     public Long getTaskId() {
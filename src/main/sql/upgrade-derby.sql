@@ -0,0 +1,18 @@
+-- Upgrades a Derby database created by an older version of the application, run it once before deploying with the
+-- `production` profile, eg. in ij:
+--   connect 'jdbc:derby:derbyDB';
+--   run 'src/main/sql/upgrade-derby.sql';
+-- The new tables, eg. TASK_CHANGE, are created by EclipseLink at the deployment.
+
+-- optimistic locking, the existing tasks start at 0
+ALTER TABLE TASK ADD COLUMN VERSION BIGINT;
+UPDATE TASK SET VERSION = 0 WHERE VERSION IS NULL;
+
+-- board columns, keyset paging by id within a status
+CREATE INDEX IDX_TASK_STATUS_ID ON TASK (STATUS, ID);
+-- recent activity within a status
+CREATE INDEX IDX_TASK_STATUS_MODIFIED ON TASK (STATUS, LAST_MODIFIED_DATE);
+
+-- the ids are allocated from ID_GENERATOR by blocks, past the ids of the existing tasks
+CREATE TABLE ID_GENERATOR (GEN_NAME VARCHAR(255) NOT NULL, GEN_VALUE BIGINT, PRIMARY KEY (GEN_NAME));
+INSERT INTO ID_GENERATOR (GEN_NAME, GEN_VALUE) SELECT 'TASK_ID', COALESCE(MAX(ID), 0) FROM TASK;
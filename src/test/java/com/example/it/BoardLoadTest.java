@@ -0,0 +1,344 @@
+package com.example.it;
+
+import com.example.Bootstrap;
+import com.example.config.FacesConfigurationBean;
+import com.example.domain.Task;
+import com.example.metrics.LatencyHistogram;
+import com.example.metrics.LifecycleMetrics;
+import com.example.web.TaskHome;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit5.container.annotation.ArquillianTest;
+import org.jboss.arquillian.test.api.ArquillianResource;
+import org.jboss.shrinkwrap.api.Filters;
+import org.jboss.shrinkwrap.api.GenericArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.importer.ExplodedImporter;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the board with thousands of simulated users and reports the throughput and latency of every flow.
+ * <p>
+ * Every user has its own session and repeats: open the board, create a task with the form, start a TODO task,
+ * complete a DOING task and delete a DONE task, all through the Faces form posts with the view state of the
+ * rendered page. The users share the first page of every column, so some actions find their task already moved by
+ * someone else: those are counted as conflicts, not as errors.
+ * <p>
+ * Skipped unless enabled, run it alone against the managed GlassFish:
+ * <pre>
+ * mvn clean verify -Parq-glassfish-managed -Dit.test=BoardLoadTest -Dloadtest=true -Dloadtest.users=2000
+ * </pre>
+ * Options: {@code loadtest.users} (default 1000), {@code loadtest.iterations} per user (default 5) and
+ * {@code loadtest.rampup} in seconds (default 10).
+ *
+ * @author hantsy
+ */
+@ArquillianTest
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+public class BoardLoadTest {
+
+    private static final Logger LOGGER = Logger.getLogger(BoardLoadTest.class.getName());
+
+    private static final String WEBAPP_SRC = "src/main/webapp";
+
+    private static final Pattern VIEW_STATE = Pattern.compile("name=\"jakarta\\.faces\\.ViewState\"[^>]*value=\"([^\"]*)\"");
+
+    private static final String CONFLICT_MESSAGE = "changed by someone else";
+
+    @Deployment(testable = false)
+    public static WebArchive createDeployment() {
+        WebArchive war = ShrinkWrap.create(WebArchive.class)
+                .addPackage(Bootstrap.class.getPackage())
+                .addPackage(Task.class.getPackage())
+                .addPackage(FacesConfigurationBean.class.getPackage())
+                .addPackage(LifecycleMetrics.class.getPackage())
+                .addPackage(TaskHome.class.getPackage())
+                .addAsResource("META-INF/persistence.xml", "META-INF/persistence.xml")
+                .addAsWebInfResource(EmptyAsset.INSTANCE, "beans.xml")
+                .merge(ShrinkWrap.create(GenericArchive.class).as(ExplodedImporter.class)
+                                .importDirectory(WEBAPP_SRC).as(GenericArchive.class),
+                        "/", Filters.include(".*\\.(xhtml|css|xml)$")
+                );
+
+        LOGGER.log(Level.INFO, "deployment unit:{0}", war.toString(true));
+        return war;
+    }
+
+    @ArquillianResource
+    private URL deploymentUrl;
+
+    enum Flow {
+        OPEN_BOARD, CREATE, START, COMPLETE, DELETE
+    }
+
+    private final Map<Flow, FlowStats> stats = new EnumMap<>(Flow.class);
+
+    {
+        for (Flow flow : Flow.values()) {
+            stats.put(flow, new FlowStats());
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    @Test
+    public void loadBoard() throws InterruptedException {
+        int users = Integer.getInteger("loadtest.users", 1000);
+        int iterations = Integer.getInteger("loadtest.iterations", 5);
+        long rampUpMillis = Long.getLong("loadtest.rampup", 10) * 1000;
+
+        LOGGER.log(Level.INFO, "starting {0} users, {1} iterations each", new Object[]{users, iterations});
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                long delay = rampUpMillis * i / users;
+                int user = i;
+                executor.submit(() -> {
+                    Thread.sleep(delay);
+                    new SimulatedUser(user).run(iterations);
+                    return null;
+                });
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        LOGGER.log(Level.INFO, report(elapsedSeconds));
+        stats.forEach((flow, flowStats) -> {
+            assertEquals(0, flowStats.errors.sum(), "errors in " + flow);
+            assertTrue(flowStats.latencies.count() > 0, "no request in " + flow);
+        });
+    }
+
+    @Test
+    public void shouldCountLostRacesAsConflicts() {
+        SimulatedUser first = new SimulatedUser(0);
+        SimulatedUser second = new SimulatedUser(1);
+        first.timed(Flow.CREATE, () -> {
+            first.get("form.xhtml");
+            return first.post("form", "form:submitTask", Map.of("form:name", "raced task",
+                    "form:description", "started by two users at once"));
+        });
+
+        // both start the same card of the same board, the second one finds it moved
+        first.timed(Flow.OPEN_BOARD, () -> first.get("tasks.xhtml"));
+        second.timed(Flow.OPEN_BOARD, () -> second.get("tasks.xhtml"));
+        String button = first.page.buttonsOf("markTaskDoing").getLast();
+        assertTrue(second.page.buttonsOf("markTaskDoing").contains(button), button);
+        first.timed(Flow.START, () -> first.post("todoForm", button, Map.of()));
+        second.timed(Flow.START, () -> second.post("todoForm", button, Map.of()));
+
+        LOGGER.log(Level.INFO, report(1));
+        assertEquals(1, stats.get(Flow.START).ok.sum());
+        assertEquals(1, stats.get(Flow.START).conflicts.sum());
+        assertEquals(0, stats.get(Flow.START).errors.sum());
+    }
+
+    private String report(double elapsedSeconds) {
+        StringBuilder report = new StringBuilder(String.format("load test finished in %.1fs%n", elapsedSeconds));
+        report.append(String.format("%-11s %8s %8s %8s %9s %9s %9s %9s %9s%n",
+                "flow", "ok", "conflict", "error", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        stats.forEach((flow, flowStats) -> {
+            LatencyHistogram.Summary summary = flowStats.latencies.summary(1_000_000d);
+            report.append(String.format("%-11s %8d %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    flow, flowStats.ok.sum(), flowStats.conflicts.sum(), flowStats.errors.sum(),
+                    summary.count() / elapsedSeconds, summary.p50(), summary.p95(), summary.p99(), summary.max()));
+        });
+        return report.toString();
+    }
+
+    private static class FlowStats {
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final LongAdder ok = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * A browser session, keeping its cookies, eg. the session and the flash of the redirects, and the last rendered
+     * page.
+     */
+    private class SimulatedUser {
+
+        private final int user;
+
+        private final CookieManager cookies = new CookieManager();
+
+        private Page page;
+
+        SimulatedUser(int user) {
+            this.user = user;
+        }
+
+        void run(int iterations) {
+            for (int i = 0; i < iterations; i++) {
+                int iteration = i;
+                timed(Flow.OPEN_BOARD, () -> get("tasks.xhtml"));
+                timed(Flow.CREATE, () -> {
+                    get("form.xhtml");
+                    Map<String, String> fields = new LinkedHashMap<>();
+                    fields.put("form:name", "load test task of user " + user);
+                    fields.put("form:description", "created by the load test, iteration " + iteration);
+                    return post("form", "form:submitTask", fields);
+                });
+                timed(Flow.START, () -> clickCard("todoForm", "markTaskDoing"));
+                timed(Flow.COMPLETE, () -> clickCard("doingForm", "markTaskDone"));
+                timed(Flow.DELETE, () -> clickCard("doneForm", "deleteTask"));
+            }
+        }
+
+        /**
+         * Clicks the button of a random card of the current board, when the column has any.
+         */
+        private Page clickCard(String formId, String buttonId) throws IOException, InterruptedException {
+            if (page == null || !page.path().endsWith("tasks.xhtml")) {
+                get("tasks.xhtml");
+            }
+            List<String> buttons = page.buttonsOf(buttonId);
+            if (buttons.isEmpty()) {
+                return null;
+            }
+            String button = buttons.get(ThreadLocalRandom.current().nextInt(buttons.size()));
+            return post(formId, button, Map.of());
+        }
+
+        private void timed(Flow flow, PageAction action) {
+            FlowStats flowStats = stats.get(flow);
+            long start = System.nanoTime();
+            try {
+                Page result = action.run();
+                if (result == null) {
+                    return;
+                }
+                flowStats.latencies.record(System.nanoTime() - start);
+                if (result.status() >= 400) {
+                    flowStats.errors.increment();
+                    LOGGER.log(Level.WARNING, "{0} of user {1} failed with HTTP {2}",
+                            new Object[]{flow, user, result.status()});
+                } else if (result.body().contains(CONFLICT_MESSAGE)) {
+                    flowStats.conflicts.increment();
+                } else {
+                    flowStats.ok.increment();
+                }
+            } catch (IOException e) {
+                flowStats.errors.increment();
+                LOGGER.log(Level.WARNING, flow + " of user " + user + " failed", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private Page get(String path) throws IOException, InterruptedException {
+            return send(HttpRequest.newBuilder(resolve(path)).GET());
+        }
+
+        /**
+         * Submits a form of the current page as the browser does: the form id, the clicked button, the fields and
+         * the view state.
+         */
+        private Page post(String formId, String buttonId, Map<String, String> fields)
+                throws IOException, InterruptedException {
+            Map<String, String> params = new LinkedHashMap<>();
+            params.put(formId, formId);
+            params.putAll(fields);
+            params.put(buttonId, "");
+            params.put("jakarta.faces.ViewState", page.viewState());
+            String body = params.entrySet().stream()
+                    .map(e -> encode(e.getKey()) + "=" + encode(e.getValue()))
+                    .collect(Collectors.joining("&"));
+            return send(HttpRequest.newBuilder(resolve(page.path()))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+        }
+
+        /**
+         * Sends the request with the cookies of the user and follows the post-redirect-get of the actions. The
+         * client is shared by all the users, the cookies are not.
+         */
+        private Page send(HttpRequest.Builder request) throws IOException, InterruptedException {
+            HttpRequest built = request.timeout(Duration.ofSeconds(60)).build();
+            HttpRequest.Builder withCookies = HttpRequest.newBuilder(built, (name, value) -> true);
+            cookies.get(built.uri(), Map.of()).forEach((name, values) -> values.forEach(v -> withCookies.header(name, v)));
+            HttpResponse<String> response = client.send(withCookies.build(), HttpResponse.BodyHandlers.ofString());
+            // the flash messages of the redirected actions, eg. the conflicts, are kept in a cookie
+            cookies.put(response.request().uri(), response.headers().map());
+
+            if (response.statusCode() == 302 || response.statusCode() == 303) {
+                URI location = response.request().uri().resolve(response.headers().firstValue("Location").orElseThrow());
+                return send(HttpRequest.newBuilder(location).GET());
+            }
+            page = new Page(response.request().uri().getPath(), response.statusCode(), response.body());
+            return page;
+        }
+
+        private URI resolve(String path) {
+            String base = deploymentUrl.toExternalForm();
+            return URI.create(base.endsWith("/") ? base : base + "/").resolve(path);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PageAction {
+        Page run() throws IOException, InterruptedException;
+    }
+
+    private record Page(String path, int status, String body) {
+
+        String viewState() {
+            Matcher matcher = VIEW_STATE.matcher(body);
+            if (!matcher.find()) {
+                throw new IllegalStateException("no view state in " + path);
+            }
+            return matcher.group(1);
+        }
+
+        /**
+         * The client ids of the buttons rendered in the card repeat, eg. {@code j_idt20:3:markTaskDoing}.
+         */
+        List<String> buttonsOf(String buttonId) {
+            Matcher matcher = Pattern.compile("name=\"([^\"]*:" + buttonId + ")\"").matcher(body);
+            List<String> buttons = new ArrayList<>();
+            while (matcher.find()) {
+                buttons.add(matcher.group(1));
+            }
+            return buttons;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.it;
 import com.example.Bootstrap;
 import com.example.config.FacesConfigurationBean;
 import com.example.domain.Task;
+import com.example.metrics.LifecycleMetrics;
 import com.example.web.TaskHome;
 import org.jboss.arquillian.container.test.api.Deployment;
 import org.jboss.arquillian.drone.api.annotation.Drone;
@@ -40,12 +41,15 @@ public class HomeScreenTest {
 
     private static final String WEBAPP_SRC = "src/main/webapp";
 
+    private static final String WEBJARS = "target/webjars";
+
     @Deployment(testable = false)
     public static WebArchive createDeployment() {
         WebArchive war = ShrinkWrap.create(WebArchive.class)
                 .addPackage(Bootstrap.class.getPackage())
                 .addPackage(Task.class.getPackage())
                 .addPackage(FacesConfigurationBean.class.getPackage())
+                .addPackage(LifecycleMetrics.class.getPackage())
                 .addPackage(TaskHome.class.getPackage())
                 //Add JPA persistence configuration.
                 //WARN: In a war archive, persistence.xml should be put into /WEB-INF/classes/META-INF/, not /META-INF
@@ -56,6 +60,11 @@ public class HomeScreenTest {
                 .merge(ShrinkWrap.create(GenericArchive.class).as(ExplodedImporter.class)
                                 .importDirectory(WEBAPP_SRC).as(GenericArchive.class),
                         "/", Filters.include(".*\\.(xhtml|css|xml)$")
+                )
+                // add Bootstrap, unpacked from the WebJars by the build.
+                .merge(ShrinkWrap.create(GenericArchive.class).as(ExplodedImporter.class)
+                                .importDirectory(WEBJARS).as(GenericArchive.class),
+                        "/WEB-INF/resources"
                 );
 
         LOGGER.log(Level.INFO, "deployment unit:{0}", war.toString(true));
@@ -94,8 +103,8 @@ public class HomeScreenTest {
         // locate the Start button of the first TODO task
         WebElement buttonElement = todoTasksWebElements.getFirst().findElement(By.cssSelector(".task-actions .btn"));
 
-        //click the Start button
-        Graphene.guardHttp(buttonElement).click();
+        //click the Start button, a partial request re-rendering the TODO and DOING columns
+        Graphene.guardAjax(buttonElement).click();
 
         // wait the GUI ready
         Graphene.waitGui();
@@ -0,0 +1,120 @@
+package com.example.it;
+
+import com.example.Bootstrap;
+import com.example.config.FacesConfigurationBean;
+import com.example.domain.Task;
+import com.example.metrics.LifecycleMetrics;
+import com.example.rest.RestConfig;
+import com.example.web.TaskHome;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit5.container.annotation.ArquillianTest;
+import org.jboss.arquillian.test.api.ArquillianResource;
+import org.jboss.shrinkwrap.api.Filters;
+import org.jboss.shrinkwrap.api.GenericArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.importer.ExplodedImporter;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the session memory of the pages with {@code /api/stats/sessions}, from a number of fresh clients, and logs
+ * the figures to compare them before and after a change.
+ *
+ * @author hantsy
+ */
+@ArquillianTest
+public class SessionFootprintTest {
+
+    private static final Logger LOGGER = Logger.getLogger(SessionFootprintTest.class.getName());
+
+    private static final String WEBAPP_SRC = "src/main/webapp";
+
+    private static final int CLIENTS = 20;
+
+    @Deployment(testable = false)
+    public static WebArchive createDeployment() {
+        WebArchive war = ShrinkWrap.create(WebArchive.class)
+                .addPackage(Bootstrap.class.getPackage())
+                .addPackage(Task.class.getPackage())
+                .addPackage(FacesConfigurationBean.class.getPackage())
+                .addPackage(LifecycleMetrics.class.getPackage())
+                .addPackage(TaskHome.class.getPackage())
+                .addPackage(RestConfig.class.getPackage())
+                .addAsResource("META-INF/persistence.xml", "META-INF/persistence.xml")
+                .addAsWebInfResource(EmptyAsset.INSTANCE, "beans.xml")
+                .merge(ShrinkWrap.create(GenericArchive.class).as(ExplodedImporter.class)
+                                .importDirectory(WEBAPP_SRC).as(GenericArchive.class),
+                        "/", Filters.include(".*\\.(xhtml|css|xml)$")
+                );
+
+        LOGGER.log(Level.INFO, "deployment unit:{0}", war.toString(true));
+        return war;
+    }
+
+    @ArquillianResource
+    private URL deploymentUrl;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    public void shouldKeepNothingInTheSessionForTheDetailsPage() throws Exception {
+        HttpResponse<String> created = send(client, request("api/tasks")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"session task\",\"description\":\"viewed\"}")));
+        assertEquals(201, created.statusCode());
+        String location = created.headers().firstValue("Location").orElseThrow();
+        String id = location.substring(location.lastIndexOf('/') + 1);
+
+        String before = send(client, request("api/stats/sessions")).body();
+        HttpClient[] clients = new HttpClient[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = HttpClient.newBuilder().cookieHandler(new CookieManager()).build();
+            assertEquals(200, send(clients[i], request("details.xhtml?id=" + id)).statusCode());
+        }
+        String details = send(client, request("api/stats/sessions")).body();
+
+        for (HttpClient board : clients) {
+            assertEquals(200, send(board, request("tasks.xhtml")).statusCode());
+        }
+        String tasks = send(client, request("api/stats/sessions")).body();
+
+        LOGGER.log(Level.INFO, "session footprint of {0} clients, before: {1}, details.xhtml: {2}, then tasks.xhtml: {3}",
+                new Object[]{CLIENTS, before, details, tasks});
+
+        // the stateless details page adds no bytes to the sessions, the stateful board does
+        assertEquals(number(before, "totalBytes"), number(details, "totalBytes"));
+        assertTrue(number(tasks, "totalBytes") > number(details, "totalBytes"), tasks);
+    }
+
+    private static long number(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\"\\s*:\\s*(\\d+)").matcher(json);
+        assertTrue(matcher.find(), json);
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        String base = deploymentUrl.toExternalForm();
+        return HttpRequest.newBuilder(URI.create(base.endsWith("/") ? base : base + "/").resolve(path));
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest.Builder request)
+            throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
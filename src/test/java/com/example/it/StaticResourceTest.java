@@ -0,0 +1,163 @@
+package com.example.it;
+
+import com.example.Bootstrap;
+import com.example.config.FacesConfigurationBean;
+import com.example.domain.Task;
+import com.example.metrics.LifecycleMetrics;
+import com.example.web.TaskHome;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit5.container.annotation.ArquillianTest;
+import org.jboss.arquillian.test.api.ArquillianResource;
+import org.jboss.shrinkwrap.api.Filters;
+import org.jboss.shrinkwrap.api.GenericArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.importer.ExplodedImporter;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author hantsy
+ */
+@ArquillianTest
+public class StaticResourceTest {
+
+    private static final Logger LOGGER = Logger.getLogger(StaticResourceTest.class.getName());
+
+    private static final String WEBAPP_SRC = "src/main/webapp";
+
+    private static final String WEBJARS = "target/webjars";
+
+    @Deployment(testable = false)
+    public static WebArchive createDeployment() {
+        WebArchive war = ShrinkWrap.create(WebArchive.class)
+                .addPackage(Bootstrap.class.getPackage())
+                .addPackage(Task.class.getPackage())
+                .addPackage(FacesConfigurationBean.class.getPackage())
+                .addPackage(LifecycleMetrics.class.getPackage())
+                .addPackage(TaskHome.class.getPackage())
+                .addAsResource("META-INF/persistence.xml", "META-INF/persistence.xml")
+                .addAsWebInfResource(EmptyAsset.INSTANCE, "beans.xml")
+                .merge(ShrinkWrap.create(GenericArchive.class).as(ExplodedImporter.class)
+                                .importDirectory(WEBAPP_SRC).as(GenericArchive.class),
+                        "/", Filters.include(".*\\.(xhtml|css|xml)$")
+                )
+                .merge(ShrinkWrap.create(GenericArchive.class).as(ExplodedImporter.class)
+                                .importDirectory(WEBJARS).as(GenericArchive.class),
+                        "/WEB-INF/resources"
+                );
+
+        LOGGER.log(Level.INFO, "deployment unit:{0}", war.toString(true));
+        return war;
+    }
+
+    @ArquillianResource
+    private URL deploymentUrl;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    public void shouldServeFingerprintedResourcesForGood() throws Exception {
+        String page = send(request("tasks.xhtml")).body();
+        String stylesheet = link(page, "css/main.css");
+        assertTrue(stylesheet.contains("v="), stylesheet);
+
+        HttpResponse<byte[]> compressed = sendForBytes(request(stylesheet).header("Accept-Encoding", "gzip"));
+        assertEquals(200, compressed.statusCode());
+        assertTrue(compressed.headers().firstValue("Cache-Control").orElseThrow().contains("immutable"));
+        assertEquals("gzip", compressed.headers().firstValue("Content-Encoding").orElseThrow());
+        String css;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.body()))) {
+            css = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertTrue(css.contains(".board"), css);
+
+        // revalidated without the content
+        HttpResponse<byte[]> notModified = sendForBytes(request(stylesheet).header("Accept-Encoding", "gzip")
+                .header("If-None-Match", compressed.headers().firstValue("ETag").orElseThrow()));
+        assertEquals(304, notModified.statusCode());
+
+        // another representation, another tag
+        HttpResponse<byte[]> identity = sendForBytes(request(stylesheet)
+                .header("If-None-Match", compressed.headers().firstValue("ETag").orElseThrow()));
+        assertEquals(200, identity.statusCode());
+        assertFalse(identity.headers().firstValue("Content-Encoding").isPresent());
+        assertNotEquals(compressed.headers().firstValue("ETag").orElseThrow(),
+                identity.headers().firstValue("ETag").orElseThrow());
+
+        // not cached for good without the current fingerprint
+        HttpResponse<byte[]> stale = sendForBytes(request(stylesheet.replaceAll("v=[0-9a-f]+", "v=0")));
+        assertEquals(200, stale.statusCode());
+        assertFalse(stale.headers().firstValue("Cache-Control").orElse("").contains("immutable"));
+    }
+
+    @Test
+    public void shouldFingerprintTheUrlsOfTheStylesheets() throws Exception {
+        String page = send(request("tasks.xhtml")).body();
+        String icons = link(page, "bootstrap-icons.min.css");
+
+        String css = send(request(icons)).body();
+        Matcher font = Pattern.compile("url\\(\"([^\"]*bootstrap-icons\\.woff2[^\"]*)\"\\)").matcher(css);
+        assertTrue(font.find(), css);
+        assertTrue(font.group(1).contains("v="), font.group(1));
+
+        HttpResponse<byte[]> fonts = sendForBytes(request(font.group(1)));
+        assertEquals(200, fonts.statusCode());
+        assertTrue(fonts.headers().firstValue("Cache-Control").orElseThrow().contains("immutable"));
+    }
+
+    @Test
+    public void shouldCompressThePages() throws Exception {
+        HttpResponse<byte[]> compressed = sendForBytes(request("tasks.xhtml").header("Accept-Encoding", "gzip"));
+        assertEquals(200, compressed.statusCode());
+        assertEquals("gzip", compressed.headers().firstValue("Content-Encoding").orElseThrow());
+        String page;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.body()))) {
+            page = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertTrue(page.contains("</html>"), page);
+        assertTrue(compressed.body().length < page.length());
+
+        HttpResponse<String> plain = send(request("tasks.xhtml"));
+        assertFalse(plain.headers().firstValue("Content-Encoding").isPresent());
+        assertTrue(plain.body().contains("</html>"));
+    }
+
+    private static String link(String page, String resource) {
+        Matcher matcher = Pattern.compile("=\"([^\"]*" + Pattern.quote(resource) + "[^\"]*)\"").matcher(page);
+        assertTrue(matcher.find(), page);
+        return matcher.group(1).replace("&amp;", "&");
+    }
+
+    private HttpRequest.Builder request(String path) {
+        String base = deploymentUrl.toExternalForm();
+        return HttpRequest.newBuilder(URI.create(base.endsWith("/") ? base : base + "/").resolve(path));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<byte[]> sendForBytes(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
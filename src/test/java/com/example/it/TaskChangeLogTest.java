@@ -0,0 +1,95 @@
+package com.example.it;
+
+import com.example.domain.Status;
+import com.example.domain.Task;
+import com.example.domain.TaskChange;
+import com.example.domain.TaskChangeLog;
+import com.example.domain.TaskChangedEvent;
+import com.example.domain.TaskRepository;
+import com.example.metrics.Monitored;
+import jakarta.inject.Inject;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit5.ArquillianExtension;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(ArquillianExtension.class)
+public class TaskChangeLogTest {
+    private static final Logger LOGGER = Logger.getLogger(TaskChangeLogTest.class.getName());
+
+    @Deployment()
+    public static JavaArchive createDeployment() {
+        JavaArchive jar = ShrinkWrap.create(JavaArchive.class)
+                .addPackage(Task.class.getPackage())
+                .addPackage(Monitored.class.getPackage())
+                //Add JPA persistence configuration.
+                //WARN: In a jar archive, persistence.xml should be put into /META-INF
+                .addAsManifestResource("META-INF/persistence.xml", "persistence.xml");
+
+        LOGGER.log(Level.INFO, "deployment unit: {0}", jar);
+
+        return jar;
+    }
+
+    @Inject
+    TaskRepository tasks;
+
+    @Inject
+    TaskChangeLog changeLog;
+
+    @Test
+    public void shouldLogTheWritesInOrder() {
+        long since = changeLog.currentSequence();
+
+        Task task = tasks.save(Task.of("logged task", "every write is logged"));
+        task.setDescription("updated");
+        tasks.update(task);
+        tasks.updateStatus(List.of(task.getId()), Status.TODO, Status.DOING);
+        tasks.deleteAll(List.of(task.getId()), Status.DOING);
+
+        TaskChangeLog.ChangeFeed feed = changeLog.changesSince(since, 100);
+        assertFalse(feed.reset());
+        List<TaskChange> changes = feed.changes().stream()
+                .filter(c -> task.getId().equals(c.getTaskId()))
+                .toList();
+        assertEquals(List.of(TaskChangedEvent.Kind.CREATED, TaskChangedEvent.Kind.UPDATED,
+                        TaskChangedEvent.Kind.STATUS_CHANGED, TaskChangedEvent.Kind.DELETED),
+                changes.stream().map(TaskChange::getKind).toList());
+        assertEquals(Status.DOING, changes.getLast().getStatus());
+        assertEquals(changeLog.currentSequence(), feed.next());
+
+        // read by pages
+        TaskChangeLog.ChangeFeed first = changeLog.changesSince(since, 1);
+        assertEquals(1, first.changes().size());
+        TaskChangeLog.ChangeFeed rest = changeLog.changesSince(first.next(), 100);
+        assertEquals(feed.changes().size() - 1, rest.changes().size());
+
+        // nothing new
+        assertTrue(changeLog.changesSince(feed.next(), 100).changes().isEmpty());
+    }
+
+    @Test
+    public void shouldResetTheClientsBehindTheCompaction() {
+        long since = changeLog.currentSequence();
+        tasks.save(Task.of("compacted task 1", "logged then compacted"));
+        tasks.save(Task.of("compacted task 2", "logged and kept as the newest"));
+
+        assertTrue(changeLog.compact(Duration.ofSeconds(-1)) > 0);
+
+        TaskChangeLog.ChangeFeed feed = changeLog.changesSince(since, 100);
+        assertTrue(feed.reset());
+        assertEquals(changeLog.currentSequence(), feed.next());
+        assertFalse(changeLog.changesSince(feed.next(), 100).reset());
+    }
+}
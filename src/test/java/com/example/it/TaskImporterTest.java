@@ -0,0 +1,110 @@
+package com.example.it;
+
+import com.example.domain.Status;
+import com.example.domain.Task;
+import com.example.domain.TaskImporter;
+import com.example.domain.TaskRepository;
+import com.example.metrics.Monitored;
+import jakarta.inject.Inject;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit5.ArquillianExtension;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(ArquillianExtension.class)
+public class TaskImporterTest {
+    private static final Logger LOGGER = Logger.getLogger(TaskImporterTest.class.getName());
+
+    @Deployment()
+    public static JavaArchive createDeployment() {
+        JavaArchive jar = ShrinkWrap.create(JavaArchive.class)
+                .addPackage(Task.class.getPackage())
+                .addPackage(Monitored.class.getPackage())
+                //Add JPA persistence configuration.
+                //WARN: In a jar archive, persistence.xml should be put into /META-INF
+                .addAsManifestResource("META-INF/persistence.xml", "persistence.xml");
+
+        LOGGER.log(Level.INFO, "deployment unit: {0}", jar);
+
+        return jar;
+    }
+
+    @Inject
+    TaskImporter importer;
+
+    @Inject
+    TaskRepository tasks;
+
+    @Test
+    public void shouldImportCsv() {
+        String csv = """
+                name,description,status
+                csv task 1,plain description,TODO
+                "csv task 2","quoted, with a comma and ""quotes\"",doing
+                "csv task 3","spanning
+                two lines",DONE
+                ,missing name,TODO
+                csv task 4,unknown status,LATER
+                """;
+
+        TaskImporter.ImportResult result = importer.importTasks(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), TaskImporter.Format.CSV);
+
+        assertEquals(3, result.imported());
+        assertEquals(2, result.rejected());
+        assertEquals(2, result.errors().size());
+        List<Task> doing = tasks.findByStatus(Status.DOING);
+        assertTrue(doing.stream().anyMatch(t -> t.getDescription().equals("quoted, with a comma and \"quotes\"")));
+        List<Task> done = tasks.findByStatus(Status.DONE);
+        assertTrue(done.stream().anyMatch(t -> t.getDescription().equals("spanning\ntwo lines")));
+    }
+
+    @Test
+    public void shouldImportJsonLinesInBatches() {
+        // more than a batch of ids, the next ids allocated by the persistence provider must not collide
+        String jsonl = IntStream.range(0, 2500)
+                .mapToObj(i -> "{\"name\":\"jsonl task " + i + "\",\"description\":\"imported\",\"status\":\"DONE\"}")
+                .reduce("", (lines, line) -> lines + line + "\n");
+
+        long count = tasks.count();
+        TaskImporter.ImportResult result = importer.importTasks(
+                new ByteArrayInputStream(jsonl.getBytes(StandardCharsets.UTF_8)), TaskImporter.Format.JSONL);
+
+        assertEquals(2500, result.imported());
+        assertEquals(0, result.rejected());
+        assertEquals(count + 2500, tasks.count());
+
+        Task saved = tasks.save(Task.of("after import", "persisted with a generated id"));
+        assertEquals(count + 2501, tasks.count());
+        assertEquals("after import", tasks.findById(saved.getId()).getName());
+    }
+
+    @Test
+    public void shouldRejectValuesTooLongForTheirColumn() {
+        String csv = "name,description,status\n"
+                + "fits,short enough,TODO\n"
+                + "too long," + "x".repeat(300) + ",TODO\n"
+                + "fits too,short enough,DONE\n";
+
+        long count = tasks.count();
+        TaskImporter.ImportResult result = importer.importTasks(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), TaskImporter.Format.CSV);
+
+        assertEquals(2, result.imported());
+        assertEquals(1, result.rejected());
+        assertTrue(result.errors().get(0).contains("description"), result.errors().toString());
+        assertEquals(count + 2, tasks.count());
+    }
+}
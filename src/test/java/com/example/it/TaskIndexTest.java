@@ -0,0 +1,141 @@
+package com.example.it;
+
+import com.example.domain.Status;
+import com.example.domain.Task;
+import com.example.metrics.Monitored;
+import jakarta.annotation.Resource;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit5.ArquillianExtension;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds a large TASK table and checks the execution plans of the board access paths
+ * with the Derby runtime statistics, the default database of the GlassFish managed adapter.
+ */
+@ExtendWith(ArquillianExtension.class)
+public class TaskIndexTest {
+    private static final Logger LOGGER = Logger.getLogger(TaskIndexTest.class.getName());
+
+    private static final long FIRST_ID = 1_000_000L;
+    private static final int ROWS = 20_000;
+
+    @Deployment()
+    public static JavaArchive createDeployment() {
+        JavaArchive jar = ShrinkWrap.create(JavaArchive.class)
+                .addPackage(Task.class.getPackage())
+                .addPackage(Monitored.class.getPackage())
+                //Add JPA persistence configuration.
+                //WARN: In a jar archive, persistence.xml should be put into /META-INF
+                .addAsManifestResource("META-INF/persistence.xml", "persistence.xml");
+
+        LOGGER.log(Level.INFO, "deployment unit: {0}", jar);
+
+        return jar;
+    }
+
+    @Resource(lookup = "java:comp/DefaultDataSource")
+    DataSource dataSource;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            try (PreparedStatement exists = conn.prepareStatement("SELECT COUNT(*) FROM TASK WHERE ID >= ?")) {
+                exists.setLong(1, FIRST_ID);
+                try (ResultSet rs = exists.executeQuery()) {
+                    rs.next();
+                    if (rs.getLong(1) > 0) {
+                        return;
+                    }
+                }
+            }
+
+            conn.setAutoCommit(false);
+            LocalDateTime now = LocalDateTime.now();
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO TASK (ID, NAME, DESCRIPTION, STATUS, CREATED_DATE, LAST_MODIFIED_DATE) VALUES (?, ?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < ROWS; i++) {
+                    // most of the tasks are done, as on a long living board
+                    Status status = i % 10 == 0 ? Status.TODO : (i % 10 == 1 ? Status.DOING : Status.DONE);
+                    insert.setLong(1, FIRST_ID + i);
+                    insert.setString(2, "seeded task " + i);
+                    insert.setString(3, "description of seeded task " + i);
+                    insert.setString(4, status.name());
+                    insert.setTimestamp(5, Timestamp.valueOf(now.minusDays(365)));
+                    insert.setTimestamp(6, Timestamp.valueOf(now.minusMinutes(ROWS - i)));
+                    insert.addBatch();
+                    if (i % 1000 == 999) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CALL SYSCS_UTIL.SYSCS_UPDATE_STATISTICS(CURRENT SCHEMA, 'TASK', NULL)");
+            }
+        }
+    }
+
+    @Test
+    public void shouldPageColumnsWithStatusIdIndex() throws SQLException {
+        String plan = explain(
+                "SELECT ID, NAME FROM TASK WHERE STATUS = ? AND ID > ? ORDER BY ID FETCH FIRST 21 ROWS ONLY",
+                Status.DONE.name(), FIRST_ID + ROWS / 2);
+
+        assertTrue(plan.contains("using index IDX_TASK_STATUS_ID"), plan);
+    }
+
+    @Test
+    public void shouldQueryRecentActivityWithStatusModifiedIndex() throws SQLException {
+        String plan = explain(
+                "SELECT ID, NAME FROM TASK WHERE STATUS = ? AND LAST_MODIFIED_DATE > ?",
+                Status.DONE.name(), Timestamp.valueOf(LocalDateTime.now().minusMinutes(30)));
+
+        assertTrue(plan.contains("using index IDX_TASK_STATUS_MODIFIED"), plan);
+    }
+
+    private String explain(String sql, Object... params) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(1)");
+            try (PreparedStatement query = conn.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    query.setObject(i + 1, params[i]);
+                }
+                try (ResultSet rs = query.executeQuery()) {
+                    while (rs.next()) {
+                        // drain the result set so the statistics are complete
+                    }
+                }
+            }
+
+            String plan;
+            try (ResultSet rs = stmt.executeQuery("VALUES SYSCS_UTIL.SYSCS_GET_RUNTIMESTATISTICS()")) {
+                rs.next();
+                plan = rs.getString(1);
+            }
+            stmt.execute("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(0)");
+
+            LOGGER.log(Level.INFO, "execution plan of {0}:\n{1}", new Object[]{sql, plan});
+            return plan;
+        }
+    }
+}
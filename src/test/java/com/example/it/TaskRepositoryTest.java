@@ -1,7 +1,14 @@
 package com.example.it;
 
+import com.example.domain.Status;
 import com.example.domain.Task;
+import com.example.domain.TaskCache;
+import com.example.domain.TaskNotFoundException;
 import com.example.domain.TaskRepository;
+import com.example.domain.TaskSummary;
+import com.example.domain.TaskTransitionQueue;
+import com.example.metrics.Monitored;
+import com.example.metrics.RepositoryMetrics;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -14,10 +21,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.util.EnumSet;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(ArquillianExtension.class)
 public class TaskRepositoryTest {
@@ -27,6 +41,8 @@ public class TaskRepositoryTest {
     public static JavaArchive createDeployment() {
         JavaArchive jar = ShrinkWrap.create(JavaArchive.class)
                 .addPackage(Task.class.getPackage())
+                // the repositories are timed, and the persistence unit records the statements
+                .addPackage(Monitored.class.getPackage())
                 //Add JPA persistence configuration.
                 //WARN: In a jar archive, persistence.xml should be put into /META-INF
                 .addAsManifestResource("META-INF/persistence.xml", "persistence.xml");
@@ -39,6 +55,15 @@ public class TaskRepositoryTest {
     @Inject
     TaskRepository tasks;
 
+    @Inject
+    TaskTransitionQueue transitionQueue;
+
+    @Inject
+    RepositoryMetrics repositoryMetrics;
+
+    @Inject
+    TaskCache taskCache;
+
     @PersistenceContext
     EntityManager em;
 
@@ -60,4 +85,164 @@ public class TaskRepositoryTest {
         assertEquals("test task", found.getName());
         assertEquals("desc of test task", found.getDescription());
     }
+
+    @Test
+    public void shouldPageByStatus() {
+        List<Long> ids = Stream.of("a", "b", "c")
+                .map(s -> {
+                    Task task = Task.of("paged task " + s, "desc of paged task " + s);
+                    task.setStatus(Status.DONE);
+                    return tasks.save(task).getId();
+                })
+                .toList();
+
+        List<Task> firstPage = tasks.findByStatus(Status.DONE, saved.getId(), 2);
+        assertEquals(ids.subList(0, 2), firstPage.stream().map(Task::getId).toList());
+
+        List<Task> nextPage = tasks.findByStatus(Status.DONE, firstPage.getLast().getId(), 2);
+        assertEquals(ids.subList(2, 3), nextPage.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    public void shouldProjectSummaries() {
+        Task longTask = tasks.save(Task.of("long task", "x".repeat(TaskSummary.PREVIEW_LENGTH + 10)));
+
+        List<TaskSummary> summaries = tasks.findSummariesByStatus(Status.TODO, saved.getId() - 1, 2);
+        assertEquals(2, summaries.size());
+
+        TaskSummary first = summaries.getFirst();
+        assertEquals(saved.getId(), first.id());
+        assertEquals("desc of test task", first.description());
+        assertFalse(first.descriptionTruncated());
+
+        TaskSummary last = summaries.getLast();
+        assertEquals(longTask.getId(), last.id());
+        assertEquals(TaskSummary.PREVIEW_LENGTH, last.description().length());
+        assertTrue(last.descriptionTruncated());
+    }
+
+    @Test
+    public void shouldMoveAndDeleteInBulk() {
+        Task other = tasks.save(Task.of("other task", "desc of other task"));
+        List<Long> ids = List.of(saved.getId(), other.getId());
+
+        assertEquals(2, tasks.updateStatus(ids, Status.TODO, Status.DOING));
+        // already moved, the expected status does not match any more
+        assertEquals(0, tasks.updateStatus(ids, Status.TODO, Status.DOING));
+        assertEquals(Status.DOING, tasks.findById(other.getId()).getStatus());
+
+        assertEquals(2, tasks.deleteAll(ids, Status.DOING));
+        assertTrue(tasks.findOptionalById(other.getId()).isEmpty());
+    }
+
+    @Test
+    public void shouldTransitionOnlyFromExpectedVersion() {
+        Long version = tasks.findById(saved.getId()).getVersion();
+
+        assertTrue(tasks.transition(saved.getId(), version, Status.TODO, Status.DOING));
+        // the version was increased by the first transition
+        assertFalse(tasks.transition(saved.getId(), version, Status.DOING, Status.DONE));
+
+        Task found = tasks.findById(saved.getId());
+        assertEquals(Status.DOING, found.getStatus());
+        assertEquals(version + 1, found.getVersion());
+    }
+
+    @Test
+    public void shouldInvalidateCachedTaskOnUpdate() {
+        Task cached = tasks.findById(saved.getId());
+        // the cached copy is not affected by the changes of the caller
+        cached.setName("updated test task");
+        assertEquals("test task", tasks.findById(saved.getId()).getName());
+
+        tasks.update(cached);
+        assertEquals("updated test task", tasks.findById(saved.getId()).getName());
+    }
+
+    @Test
+    public void shouldCoalesceBufferedTransitions() {
+        Long version = tasks.findById(saved.getId()).getVersion();
+        Task other = tasks.save(Task.of("other test task", "desc of other test task"));
+
+        transitionQueue.enqueue(saved.getId(), Status.TODO, Status.DOING);
+        transitionQueue.enqueue(saved.getId(), Status.DOING, Status.DONE);
+        // moved back, nothing to write
+        transitionQueue.enqueue(other.getId(), Status.TODO, Status.DOING);
+        transitionQueue.enqueue(other.getId(), Status.DOING, Status.TODO);
+        transitionQueue.flush();
+
+        Task found = tasks.findById(saved.getId());
+        assertEquals(Status.DONE, found.getStatus());
+        // written once
+        assertEquals(version + 1, found.getVersion());
+        assertEquals(other.getVersion(), tasks.findById(other.getId()).getVersion());
+    }
+
+    @Test
+    public void shouldRememberMissingTasks() {
+        Task deleted = tasks.save(Task.of("deleted task", "desc of deleted task"));
+        tasks.deleteById(deleted.getId());
+
+        assertTrue(tasks.findOptionalById(deleted.getId()).isEmpty());
+        assertTrue(taskCache.isMissing(deleted.getId()));
+        TaskNotFoundException notFound = assertThrows(TaskNotFoundException.class,
+                () -> tasks.findById(deleted.getId()));
+        assertEquals(deleted.getId(), notFound.getTaskId());
+        assertEquals(0, notFound.getStackTrace().length);
+
+        // an id is not missing any more once a task is written with it
+        taskCache.putMissing(saved.getId(), taskCache.generation());
+        tasks.update(saved);
+        assertFalse(taskCache.isMissing(saved.getId()));
+        assertEquals("test task", tasks.findById(saved.getId()).getName());
+    }
+
+    @Test
+    public void shouldNotDeleteChangedTasks() {
+        Task found = tasks.findById(saved.getId());
+        assertTrue(tasks.transition(saved.getId(), found.getVersion(), Status.TODO, Status.DOING));
+
+        // the version was increased by the transition
+        assertFalse(tasks.deleteIfUnchanged(saved.getId(), found.getVersion(), found.getStatus()));
+        assertTrue(tasks.findOptionalById(saved.getId()).isPresent());
+
+        Task moved = tasks.findById(saved.getId());
+        assertTrue(tasks.deleteIfUnchanged(saved.getId(), moved.getVersion(), moved.getStatus()));
+        assertTrue(tasks.findOptionalById(saved.getId()).isEmpty());
+    }
+
+    @Test
+    public void shouldNotUpdateDeletedTasks() {
+        Task deleted = tasks.save(Task.of("deleted task", "desc of deleted task"));
+        tasks.deleteById(deleted.getId());
+
+        assertThrows(TaskNotFoundException.class, () -> tasks.update(deleted));
+        assertTrue(tasks.findOptionalById(deleted.getId()).isEmpty());
+    }
+
+    @Test
+    public void shouldNotCacheWhatWasReadBeforeAnInvalidation() {
+        Task found = tasks.findById(saved.getId());
+        taskCache.invalidate(List.of(saved.getId()), EnumSet.noneOf(Status.class));
+
+        long generation = taskCache.generation();
+        taskCache.invalidate(List.of(saved.getId()), EnumSet.noneOf(Status.class));
+        taskCache.putTask(found, generation);
+        assertNull(taskCache.getTask(saved.getId()));
+
+        taskCache.putTask(found, taskCache.generation());
+        assertEquals(found.getName(), taskCache.getTask(saved.getId()).getName());
+    }
+
+    @Test
+    public void shouldTimeTheCalls() {
+        tasks.save(Task.of("timed task", "desc of timed task"));
+        tasks.findSummariesByStatus(Status.TODO, null, 2);
+
+        RepositoryMetrics.MethodStats stats = repositoryMetrics.stats()
+                .get("TaskRepository.findSummariesByStatus(Status, Long, int)");
+        assertTrue(stats.latency().count() > 0);
+        assertTrue(stats.rows().max() >= 2);
+        assertTrue(repositoryMetrics.stats().get("TaskRepository.save(Task)").latency().count() > 0);
+    }
 }
@@ -0,0 +1,134 @@
+package com.example.it;
+
+import com.example.Bootstrap;
+import com.example.config.FacesConfigurationBean;
+import com.example.domain.Task;
+import com.example.metrics.LifecycleMetrics;
+import com.example.rest.RestConfig;
+import com.example.web.TaskHome;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit5.container.annotation.ArquillianTest;
+import org.jboss.arquillian.test.api.ArquillianResource;
+import org.jboss.shrinkwrap.api.Filters;
+import org.jboss.shrinkwrap.api.GenericArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.importer.ExplodedImporter;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author hantsy
+ */
+@ArquillianTest
+public class TaskResourceTest {
+
+    private static final Logger LOGGER = Logger.getLogger(TaskResourceTest.class.getName());
+
+    private static final String WEBAPP_SRC = "src/main/webapp";
+
+    @Deployment(testable = false)
+    public static WebArchive createDeployment() {
+        WebArchive war = ShrinkWrap.create(WebArchive.class)
+                .addPackage(Bootstrap.class.getPackage())
+                .addPackage(Task.class.getPackage())
+                .addPackage(FacesConfigurationBean.class.getPackage())
+                .addPackage(LifecycleMetrics.class.getPackage())
+                .addPackage(TaskHome.class.getPackage())
+                .addPackage(RestConfig.class.getPackage())
+                .addAsResource("META-INF/persistence.xml", "META-INF/persistence.xml")
+                .addAsWebInfResource(EmptyAsset.INSTANCE, "beans.xml")
+                .merge(ShrinkWrap.create(GenericArchive.class).as(ExplodedImporter.class)
+                                .importDirectory(WEBAPP_SRC).as(GenericArchive.class),
+                        "/", Filters.include(".*\\.(xhtml|css|xml)$")
+                );
+
+        LOGGER.log(Level.INFO, "deployment unit:{0}", war.toString(true));
+        return war;
+    }
+
+    @ArquillianResource
+    private URL deploymentUrl;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    public void shouldHonorConditionalRequests() throws Exception {
+        HttpResponse<String> created = send(request("api/tasks")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"rest task\",\"description\":\"created over http\"}")));
+        assertEquals(201, created.statusCode());
+        String location = created.headers().firstValue("Location").orElseThrow();
+        String etag = created.headers().firstValue("ETag").orElseThrow();
+
+        // an unchanged task is not sent again
+        HttpResponse<String> notModified = send(HttpRequest.newBuilder(URI.create(location))
+                .header("If-None-Match", etag));
+        assertEquals(304, notModified.statusCode());
+
+        HttpResponse<String> updated = send(HttpRequest.newBuilder(URI.create(location))
+                .header("Content-Type", "application/json")
+                .header("If-Match", etag)
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"name\":\"rest task\",\"description\":\"updated over http\"}")));
+        assertEquals(200, updated.statusCode());
+        String updatedEtag = updated.headers().firstValue("ETag").orElseThrow();
+        assertNotEquals(etag, updatedEtag);
+
+        // a write based on the stale version is rejected
+        HttpResponse<String> stale = send(HttpRequest.newBuilder(URI.create(location + "/status"))
+                .header("Content-Type", "application/json")
+                .header("If-Match", etag)
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"status\":\"DOING\"}")));
+        assertEquals(412, stale.statusCode());
+
+        HttpResponse<String> moved = send(HttpRequest.newBuilder(URI.create(location + "/status"))
+                .header("Content-Type", "application/json")
+                .header("If-Match", updatedEtag)
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"status\":\"DOING\"}")));
+        assertEquals(200, moved.statusCode());
+        assertTrue(moved.body().contains("\"DOING\""));
+
+        HttpResponse<String> deleted = send(HttpRequest.newBuilder(URI.create(location))
+                .header("If-Match", moved.headers().firstValue("ETag").orElseThrow())
+                .DELETE());
+        assertEquals(204, deleted.statusCode());
+        assertEquals(404, send(HttpRequest.newBuilder(URI.create(location))).statusCode());
+    }
+
+    @Test
+    public void shouldPageByStatus() throws Exception {
+        // the 2 seeded TODO tasks
+        HttpResponse<String> first = send(request("api/tasks?status=TODO&size=1"));
+        assertEquals(200, first.statusCode());
+        String next = first.headers().firstValue("Link").orElseThrow();
+        assertTrue(next.contains("rel=\"next\""));
+
+        HttpResponse<String> cached = send(request("api/tasks?status=TODO&size=1")
+                .header("If-None-Match", first.headers().firstValue("ETag").orElseThrow()));
+        assertEquals(304, cached.statusCode());
+
+        assertEquals(400, send(request("api/tasks")).statusCode());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        String base = deploymentUrl.toExternalForm();
+        return HttpRequest.newBuilder(URI.create(base.endsWith("/") ? base : base + "/").resolve(path));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.it;
+
+import com.example.domain.Status;
+import com.example.domain.Task;
+import com.example.domain.TaskRepository;
+import com.example.domain.TaskSearchIndex;
+import com.example.metrics.Monitored;
+import jakarta.inject.Inject;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit5.ArquillianExtension;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(ArquillianExtension.class)
+public class TaskSearchIndexTest {
+    private static final Logger LOGGER = Logger.getLogger(TaskSearchIndexTest.class.getName());
+
+    @Deployment()
+    public static JavaArchive createDeployment() {
+        JavaArchive jar = ShrinkWrap.create(JavaArchive.class)
+                .addPackage(Task.class.getPackage())
+                .addPackage(Monitored.class.getPackage())
+                //Add JPA persistence configuration.
+                //WARN: In a jar archive, persistence.xml should be put into /META-INF
+                .addAsManifestResource("META-INF/persistence.xml", "persistence.xml");
+
+        LOGGER.log(Level.INFO, "deployment unit: {0}", jar);
+
+        return jar;
+    }
+
+    @Inject
+    TaskRepository tasks;
+
+    @Inject
+    TaskSearchIndex index;
+
+    @Test
+    public void shouldRankNameMatchesFirst() throws InterruptedException {
+        Task inDescription = tasks.save(Task.of("write the release notes", "mention the invoice export"));
+        Task inName = tasks.save(Task.of("fix the invoice export", "the totals are rounded twice"));
+
+        // the index is refreshed in the background
+        await(() -> index.search("invoice", 0, 10).total() == 2);
+
+        List<TaskSearchIndex.Hit> hits = index.search("invoice export", 0, 10).hits();
+        assertEquals(inName.getId(), hits.getFirst().id());
+        assertEquals(inDescription.getId(), hits.get(1).id());
+
+        // the last word is a prefix
+        assertEquals(1, index.search("rounded tw", 0, 10).total());
+        assertEquals(0, index.search("rounded thrice", 0, 10).total());
+    }
+
+    @Test
+    public void shouldFollowTheWrites() throws InterruptedException {
+        Task task = tasks.save(Task.of("migrate the ledger", "move the ledger to the new schema"));
+        await(() -> index.search("ledger", 0, 10).total() == 1);
+
+        tasks.updateStatus(List.of(task.getId()), Status.TODO, Status.DOING);
+        await(() -> index.search("ledger", 0, 10).hits().getFirst().status() == Status.DOING);
+
+        tasks.deleteAll(List.of(task.getId()), Status.DOING);
+        await(() -> index.search("ledger", 0, 10).total() == 0);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
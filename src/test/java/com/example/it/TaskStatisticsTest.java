@@ -0,0 +1,92 @@
+package com.example.it;
+
+import com.example.domain.Status;
+import com.example.domain.Task;
+import com.example.domain.TaskRepository;
+import com.example.domain.TaskStatistics;
+import com.example.metrics.Monitored;
+import jakarta.inject.Inject;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit5.ArquillianExtension;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(ArquillianExtension.class)
+public class TaskStatisticsTest {
+    private static final Logger LOGGER = Logger.getLogger(TaskStatisticsTest.class.getName());
+
+    @Deployment()
+    public static JavaArchive createDeployment() {
+        JavaArchive jar = ShrinkWrap.create(JavaArchive.class)
+                .addPackage(Task.class.getPackage())
+                .addPackage(Monitored.class.getPackage())
+                //Add JPA persistence configuration.
+                //WARN: In a jar archive, persistence.xml should be put into /META-INF
+                .addAsManifestResource("META-INF/persistence.xml", "persistence.xml");
+
+        LOGGER.log(Level.INFO, "deployment unit: {0}", jar);
+
+        return jar;
+    }
+
+    @Inject
+    TaskRepository tasks;
+
+    @Inject
+    TaskStatistics statistics;
+
+    @Test
+    public void shouldCountWithoutReadingTheTasks() {
+        Task first = tasks.save(Task.of("counted task 1", "counted by the events"));
+        Task second = tasks.save(Task.of("counted task 2", "counted by the events"));
+        tasks.updateStatus(List.of(first.getId(), second.getId()), Status.TODO, Status.DOING);
+        tasks.deleteAll(List.of(second.getId()), Status.DOING);
+
+        // the counters follow the committed writes
+        tasks.countByStatus().forEach((status, count) -> assertEquals(count.longValue(), statistics.count(status)));
+    }
+
+    @Test
+    public void shouldMeasureTheFlow() throws InterruptedException {
+        long doneToday = doneToday();
+        Task task = tasks.save(Task.of("flowing task", "moved to done"));
+        Task other = tasks.save(Task.of("other flowing task", "moved to done later"));
+        tasks.updateStatus(List.of(task.getId(), other.getId()), Status.TODO, Status.DOING);
+        tasks.updateStatus(List.of(task.getId()), Status.DOING, Status.DONE);
+
+        // the completions are read in the background
+        await(() -> doneToday() == doneToday + 1);
+        assertTrue(statistics.stats().throughputPerDay() > 0);
+
+        // listed again by a bulk move skipping it, counted once
+        tasks.updateStatus(List.of(task.getId(), other.getId()), Status.DOING, Status.DONE);
+        await(() -> doneToday() == doneToday + 2);
+        Thread.sleep(500);
+        assertEquals(doneToday + 2, doneToday());
+    }
+
+    private long doneToday() {
+        return statistics.stats().days().stream()
+                .filter(day -> day.day().equals(LocalDate.now()))
+                .mapToLong(TaskStatistics.DayStats::completed)
+                .sum();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
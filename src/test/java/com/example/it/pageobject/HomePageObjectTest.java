@@ -3,6 +3,7 @@ package com.example.it.pageobject;
 import com.example.Bootstrap;
 import com.example.config.FacesConfigurationBean;
 import com.example.domain.Task;
+import com.example.metrics.LifecycleMetrics;
 import com.example.web.TaskHome;
 import org.jboss.arquillian.container.test.api.Deployment;
 import org.jboss.arquillian.graphene.page.InitialPage;
@@ -37,6 +38,7 @@ public class HomePageObjectTest {
                 .addPackage(Bootstrap.class.getPackage())
                 .addPackage(Task.class.getPackage())
                 .addPackage(FacesConfigurationBean.class.getPackage())
+                .addPackage(LifecycleMetrics.class.getPackage())
                 .addPackage(TaskHome.class.getPackage())
                 //Add JPA persistence configuration.
                 //WARN: In a war archive, persistence.xml should be put into /WEB-INF/classes/META-INF/, not /META-INF